@@ -0,0 +1,20 @@
+package ru.practicum.ewm.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration
+@ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConnectionLimiterAutoConfiguration {
+
+    @Bean
+    public static ConnectionLimiterPostProcessor connectionLimiterPostProcessor(
+            @Value("${db.connection-limiter.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConcurrent,
+            @Value("${db.connection-limiter.max-waiting:1000}") int maxWaiting,
+            @Value("${db.connection-limiter.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new ConnectionLimiterPostProcessor(maxConcurrent, maxWaiting, acquireTimeoutMs);
+    }
+}
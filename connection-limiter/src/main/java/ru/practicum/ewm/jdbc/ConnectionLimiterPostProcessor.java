@@ -0,0 +1,25 @@
+package ru.practicum.ewm.jdbc;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+public class ConnectionLimiterPostProcessor implements BeanPostProcessor {
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long acquireTimeoutMs;
+
+    public ConnectionLimiterPostProcessor(int maxConcurrent, int maxWaiting, long acquireTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+            return new ConnectionLimitingDataSource(dataSource, maxConcurrent, maxWaiting, acquireTimeoutMs);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.ewm.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.ewm.EwmApp;
+import ru.practicum.ewm.events.Event;
+import ru.practicum.ewm.events.EventRepository;
+import ru.practicum.ewm.events.EventSpecificationBuilder;
+import ru.practicum.ewm.events.enums.TextSearchMode;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventTextSearchBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final int INSERT_CHUNK = 100_000;
+    private static final int PAGE_SIZE = 10;
+    private static final String LETTERS = "абвгдежзиклмнопр";
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"SUBSTRING", "FULL_TEXT"})
+    private TextSearchMode mode;
+
+    @Param({"false", "true"})
+    private boolean trigramIndexes;
+
+    @Param({"вгд", "клмноп"})
+    private String text;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(EwmApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--events.views.sync.enabled=false",
+                        "--logging.level.root=WARN");
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            loadEvents(connection);
+            try (Statement statement = connection.createStatement()) {
+                if (!trigramIndexes) {
+                    statement.execute("DROP INDEX events_annotation_trgm_idx");
+                    statement.execute("DROP INDEX events_description_trgm_idx");
+                }
+                statement.execute("VACUUM ANALYZE events");
+            }
+        }
+        eventRepository = context.getBean(EventRepository.class);
+        page = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Order.asc("eventDate"), Sort.Order.asc("id")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Event> search() {
+        return eventRepository.findAll(EventSpecificationBuilder.build(text, mode, null, null, NOW, null, null), page);
+    }
+
+    private void loadEvents(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (name, email) VALUES ('initiator', 'initiator@example.com')");
+            statement.execute("INSERT INTO categories (name) VALUES ('category')");
+            statement.execute("INSERT INTO locations (lat, lon) VALUES (55.75, 37.62)");
+            statement.execute("SELECT setseed(0.42)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO events " +
+                "(annotation, category_id, created_on, description, event_date, initiator_id, location_id, paid, " +
+                "participant_limit, published_on, request_moderation, state, title) " +
+                "SELECT " + words(20) + " || ' ' || (? + g), 1, CAST(? AS timestamp), " + words(120) + ", " +
+                "CAST(? AS timestamp) + (random() * 730 - 365) * INTERVAL '1 day', 1, 1, FALSE, 0, " +
+                "CAST(? AS timestamp), FALSE, " +
+                "CASE WHEN random() < 0.8 THEN 'PUBLISHED' ELSE 'PENDING' END, " + words(4) + " " +
+                "FROM generate_series(1, ?) AS g")) {
+            for (int loaded = 0; loaded < rows; loaded += INSERT_CHUNK) {
+                statement.setInt(1, loaded);
+                statement.setTimestamp(2, Timestamp.valueOf(NOW));
+                statement.setTimestamp(3, Timestamp.valueOf(NOW));
+                statement.setTimestamp(4, Timestamp.valueOf(NOW));
+                statement.setInt(5, Math.min(INSERT_CHUNK, rows - loaded));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static String words(int count) {
+        return "(SELECT string_agg(translate(substr(md5(random()::text), 1, 3 + floor(random() * 6)::int), " +
+                "'0123456789abcdef', '" + LETTERS + "'), ' ') FROM generate_series(1, " + count + " + g * 0))";
+    }
+}
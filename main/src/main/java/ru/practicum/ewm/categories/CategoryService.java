@@ -15,4 +15,6 @@ public interface CategoryService {
     CategoryDto getCategoryById(Long id);
 
     void deleteCategory(Long categoryId);
+
+    CategoryDto findCategory(Long categoryId);
 }
@@ -1,14 +1,25 @@
 package ru.practicum.ewm.categories;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.categories.dto.CategoryDto;
 import ru.practicum.ewm.categories.dto.NewCategoryDto;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
 import ru.practicum.ewm.exceptions.NotFoundException;
+import ru.practicum.ewm.util.OffsetPageRequest;
+import ru.practicum.ewm.util.Util;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,13 +27,33 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
-public class CategoryServiceImpl implements CategoryService {
+public class CategoryServiceImpl implements CategoryService, InitializingBean {
     private final CategoryRepository categoryRepository;
+    private final PinnedCompilationsCache pinnedCompilationsCache;
+    private final MeterRegistry meterRegistry;
+    @Value("${categories.cache.maximum-size:1000}")
+    private long cacheMaximumSize;
+    @Value("${categories.cache.expire-after-ms:60000}")
+    private long cacheExpireAfterMs;
+    private Cache<Long, CategoryDto> categories;
+
+    @Override
+    public void afterPropertiesSet() {
+        categories = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(cacheExpireAfterMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, categories, "categories");
+    }
 
     @Override
     public CategoryDto addCategory(NewCategoryDto newCategoryDto) {
         log.info("Add category: {}", newCategoryDto);
-        return CategoryMapper.toCategoryDto(categoryRepository.save(CategoryMapper.toCategory(newCategoryDto)));
+        CategoryDto categoryDto = CategoryMapper.toCategoryDto(
+                categoryRepository.save(CategoryMapper.toCategory(newCategoryDto)));
+        Util.afterCommit(() -> categories.put(categoryDto.getId(), categoryDto));
+        return categoryDto;
     }
 
     @Override
@@ -30,22 +61,26 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = getCategory(categoryId);
         category.setName(categoryDto.getName());
         log.info("Update category: {}", category);
-        return CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        CategoryDto updated = CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        Util.afterCommit(() -> categories.put(categoryId, updated));
+        pinnedCompilationsCache.invalidateAll();
+        return updated;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories(Integer from, Integer size) {
         log.info("Get all categories");
-        return categoryRepository.findAll(PageRequest.of(from / size, size)).stream()
-                .map(CategoryMapper::toCategoryDto).collect(Collectors.toList());
+        return categoryRepository.findAll(OffsetPageRequest.of(from, size, Sort.by("id"))).stream()
+                .map(CategoryMapper::toCategoryDto)
+                .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CategoryDto getCategoryById(Long id) {
         log.info("Get category by id: {}", id);
-        return CategoryMapper.toCategoryDto(getCategory(id));
+        return findCategory(id);
     }
 
     @Override
@@ -54,6 +89,13 @@ public class CategoryServiceImpl implements CategoryService {
             throw new NotFoundException("Category id=" + categoryId + " not found");
         }
         categoryRepository.deleteById(categoryId);
+        Util.afterCommit(() -> categories.invalidate(categoryId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CategoryDto findCategory(Long categoryId) {
+        return categories.get(categoryId, id -> CategoryMapper.toCategoryDto(getCategory(id)));
     }
 
     private Category getCategory(Long categoryId) {
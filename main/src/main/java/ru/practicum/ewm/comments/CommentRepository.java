@@ -2,13 +2,21 @@ package ru.practicum.ewm.comments;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment c JOIN FETCH c.event WHERE c.author.id = :userId ORDER BY c.id")
     List<Comment> findAllByAuthorId(Long userId, Pageable pageable);
 
-    List<Comment> findAllByEventId(Long eventId, Pageable pageable);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.event.id = :eventId ORDER BY c.created, c.id")
+    List<Comment> findPageByEventId(Long eventId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.event.id = :eventId " +
+            "AND (c.created, c.id) > (:created, :id) ORDER BY c.created, c.id")
+    List<Comment> findPageByEventIdAfter(Long eventId, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.ewm.comments;
 
+import jakarta.servlet.http.HttpServletResponse;
 import ru.practicum.ewm.comments.dto.CommentDto;
 import ru.practicum.ewm.comments.dto.CommentNewDto;
+import ru.practicum.ewm.comments.dto.CommentPageDto;
 
 import java.util.List;
 
@@ -12,7 +14,7 @@ public interface CommentService {
 
     List<CommentDto> getCommentsByAuthor(Long userId, Integer from, Integer size);
 
-    List<CommentDto> getComments(Long eventId, Integer from, Integer size);
+    CommentPageDto getComments(Long eventId, String cursor, Integer from, Integer size, HttpServletResponse response);
 
     CommentDto getCommentById(Long commentId);
 
@@ -1,5 +1,6 @@
 package ru.practicum.ewm.comments;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,27 +9,27 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.comments.dto.CommentDto;
 import ru.practicum.ewm.comments.dto.CommentNewDto;
+import ru.practicum.ewm.comments.dto.CommentPageDto;
 import ru.practicum.ewm.events.Event;
+import ru.practicum.ewm.events.EventCommentStatsRepository;
 import ru.practicum.ewm.events.EventMapper;
+import ru.practicum.ewm.events.EventRelationsCache;
 import ru.practicum.ewm.events.EventRepository;
 import ru.practicum.ewm.events.dto.EventShortDto;
 import ru.practicum.ewm.exceptions.BadRequestException;
 import ru.practicum.ewm.exceptions.NotFoundException;
-import ru.practicum.ewm.requests.RequestRepository;
-import ru.practicum.ewm.requests.dto.ConfirmedRequests;
 import ru.practicum.ewm.users.User;
 import ru.practicum.ewm.users.UserMapper;
 import ru.practicum.ewm.users.UserRepository;
 import ru.practicum.ewm.users.dto.UserShortDto;
+import ru.practicum.ewm.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.ewm.events.enums.State.PUBLISHED;
-import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
 
 @Slf4j
 @Service
@@ -38,7 +39,8 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
-    private final RequestRepository requestRepository;
+    private final EventRelationsCache eventRelationsCache;
+    private final EventCommentStatsRepository eventCommentStatsRepository;
 
     @Override
     public CommentDto addComment(Long userId, Long eventId, CommentNewDto commentNewDto) {
@@ -48,9 +50,9 @@ public class CommentServiceImpl implements CommentService {
             throw new BadRequestException("Comments are available only for published events.");
         }
         Comment comment = commentRepository.save(CommentMapper.toComment(commentNewDto, author, event));
+        eventCommentStatsRepository.addComment(eventId, comment.getCreated());
         UserShortDto userShort = UserMapper.toUserShortDto(author);
-        EventShortDto eventShort = EventMapper.toEventShortDto(event,
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
+        EventShortDto eventShort = EventMapper.toEventShortDto(event, eventRelationsCache);
         log.info("Add comment: {}", comment);
         return CommentMapper.toCommentDto(comment, userShort, eventShort);
     }
@@ -60,14 +62,13 @@ public class CommentServiceImpl implements CommentService {
         User author = getUser(userId);
         Comment comment = getComment(commentId);
         Event event = comment.getEvent();
-        if (comment.getAuthor() != author) {
+        if (!comment.getAuthor().getId().equals(userId)) {
             throw new ValidationException("Only author can update comment.");
         }
         comment.setText(commentNewDto.getText());
         comment.setEdited(LocalDateTime.now());
         UserShortDto userShort = UserMapper.toUserShortDto(author);
-        EventShortDto eventShort = EventMapper.toEventShortDto(event,
-                requestRepository.countByEventIdAndStatus(event.getId(), CONFIRMED));
+        EventShortDto eventShort = EventMapper.toEventShortDto(event, eventRelationsCache);
         log.info("Update comment: {}", comment);
         return CommentMapper.toCommentDto(comment, userShort, eventShort);
     }
@@ -76,16 +77,12 @@ public class CommentServiceImpl implements CommentService {
     @Transactional(readOnly = true)
     public List<CommentDto> getCommentsByAuthor(Long userId, Integer from, Integer size) {
         User author = getUser(userId);
-        List<Comment> comments = commentRepository.findAllByAuthorId(userId, PageRequest.of(from / size, size));
-        List<Long> eventIds = comments.stream().map(comment -> comment.getEvent().getId()).collect(Collectors.toList());
-        Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(eventIds, CONFIRMED)
-                .stream()
-                .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
+        List<Comment> comments = commentRepository.findAllByAuthorId(userId, OffsetPageRequest.of(from, size));
         UserShortDto userShort = UserMapper.toUserShortDto(author);
+        eventRelationsCache.prefetch(comments.stream().map(Comment::getEvent).collect(Collectors.toList()));
         List<CommentDto> result = new ArrayList<>();
         for (Comment c : comments) {
-            Long eventId = c.getEvent().getId();
-            EventShortDto eventShort = EventMapper.toEventShortDto(c.getEvent(), confirmedRequests.get(eventId));
+            EventShortDto eventShort = EventMapper.toEventShortDto(c.getEvent(), eventRelationsCache);
             result.add(CommentMapper.toCommentDto(c, userShort, eventShort));
         }
         log.info("Get comments by author: {}", result);
@@ -94,15 +91,27 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CommentDto> getComments(Long eventId, Integer from, Integer size) {
+    public CommentPageDto getComments(Long eventId, String cursor, Integer from, Integer size,
+                                      HttpServletResponse response) {
         Event event = getEvent(eventId);
-        EventShortDto eventShort = EventMapper.toEventShortDto(event,
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
+        EventShortDto eventShort = EventMapper.toEventShortDto(event, eventRelationsCache);
+        List<Comment> comments;
+        if (cursor == null) {
+            comments = commentRepository.findPageByEventId(eventId, OffsetPageRequest.of(from, size));
+        } else if (cursor.isEmpty()) {
+            comments = commentRepository.findPageByEventId(eventId, PageRequest.of(0, size));
+        } else {
+            CommentCursor after = CommentCursor.decode(cursor);
+            comments = commentRepository.findPageByEventIdAfter(eventId, after.getCreated(), after.getId(),
+                    PageRequest.of(0, size));
+        }
+        if (cursor != null && comments.size() == size) {
+            response.setHeader(CommentCursor.HEADER, CommentCursor.of(comments.get(comments.size() - 1)).encode());
+        }
         log.info("Get comments: {}", eventShort);
-        return commentRepository.findAllByEventId(eventId, PageRequest.of(from / size, size))
-                .stream()
-                .map(c -> CommentMapper.toCommentDto(c, UserMapper.toUserShortDto(c.getAuthor()), eventShort))
-                .collect(Collectors.toList());
+        return new CommentPageDto(eventShort, comments.stream()
+                .map(c -> CommentMapper.toCommentDto(c, UserMapper.toUserShortDto(c.getAuthor()), null))
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -110,27 +119,28 @@ public class CommentServiceImpl implements CommentService {
     public CommentDto getCommentById(Long commentId) {
         Comment comment = getComment(commentId);
         UserShortDto userShort = UserMapper.toUserShortDto(comment.getAuthor());
-        EventShortDto eventShort = EventMapper.toEventShortDto(comment.getEvent(),
-                requestRepository.countByEventIdAndStatus(comment.getEvent().getId(), CONFIRMED));
+        EventShortDto eventShort = EventMapper.toEventShortDto(comment.getEvent(), eventRelationsCache);
         log.info("Get comment by id: {}", comment);
         return CommentMapper.toCommentDto(comment, userShort, eventShort);
     }
 
     @Override
     public void deleteComment(Long userId, Long commentId) {
-        User author = getUser(userId);
+        getUser(userId);
         Comment comment = getComment(commentId);
-        if (comment.getAuthor() != author) {
+        if (!comment.getAuthor().getId().equals(userId)) {
             throw new ValidationException("Only author can delete the comment.");
         }
         log.info("Delete comment by id from user: {}", commentId);
+        eventCommentStatsRepository.removeComment(comment.getEvent().getId(), commentId);
         commentRepository.deleteById(commentId);
     }
 
     @Override
     public void deleteComment(Long commentId) {
-        getComment(commentId);
+        Comment comment = getComment(commentId);
         log.info("Delete comment by id: {}", commentId);
+        eventCommentStatsRepository.removeComment(comment.getEvent().getId(), commentId);
         commentRepository.deleteById(commentId);
     }
 
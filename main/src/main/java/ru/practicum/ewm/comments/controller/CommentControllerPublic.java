@@ -1,5 +1,6 @@
 package ru.practicum.ewm.comments.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -12,10 +13,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.comments.CommentService;
 import ru.practicum.ewm.comments.dto.CommentDto;
+import ru.practicum.ewm.comments.dto.CommentPageDto;
 import ru.practicum.ewm.stats.util.Constants;
 
-import java.util.List;
-
 @Slf4j
 @Validated
 @RestController
@@ -25,11 +25,13 @@ public class CommentControllerPublic {
     private final CommentService commentService;
 
     @GetMapping("/event/{eventId}")
-    List<CommentDto> getComments(@PathVariable Long eventId,
-                                 @RequestParam(value = Constants.REQ_PARAM_FROM, defaultValue = Constants.DEFAULT_PAGE_FROM) @PositiveOrZero Integer from,
-                                 @RequestParam(value = Constants.REQ_PARAM_SIZE, defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive Integer size) {
+    CommentPageDto getComments(@PathVariable Long eventId,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(value = Constants.REQ_PARAM_FROM, defaultValue = Constants.DEFAULT_PAGE_FROM) @PositiveOrZero Integer from,
+                               @RequestParam(value = Constants.REQ_PARAM_SIZE, defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive Integer size,
+                               HttpServletResponse response) {
         log.info("GET /comments/event/{eventId} / getComments");
-        return commentService.getComments(eventId, from, size);
+        return commentService.getComments(eventId, cursor, from, size, response);
     }
 
     @GetMapping("/{commentId}")
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.comments.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,6 +21,7 @@ public class CommentDto {
     Long id;
     String text;
     UserShortDto author;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     EventShortDto event;
     @JsonFormat(pattern = Constants.DATE_TIME_FORMAT)
     LocalDateTime created;
@@ -0,0 +1,19 @@
+package ru.practicum.ewm.comments.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.ewm.events.dto.EventShortDto;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CommentPageDto {
+    EventShortDto event;
+    List<CommentDto> comments;
+}
@@ -1,12 +1,26 @@
 package ru.practicum.ewm.compilations;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
-    List<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+    @Query("SELECT c.id FROM Compilation c")
+    List<Long> findPageIds(Pageable pageable);
+
+    @Query("SELECT c.id FROM Compilation c WHERE c.pinned = :pinned")
+    List<Long> findPageIdsByPinned(Boolean pinned, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"events"})
+    List<Compilation> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"events"})
+    Optional<Compilation> findWithEventsById(Long id);
 }
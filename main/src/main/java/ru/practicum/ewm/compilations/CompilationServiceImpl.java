@@ -2,28 +2,24 @@ package ru.practicum.ewm.compilations;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.compilations.dto.CompilationDto;
 import ru.practicum.ewm.compilations.dto.NewCompilationDto;
 import ru.practicum.ewm.compilations.dto.UpdateCompilationDto;
-import ru.practicum.ewm.events.Event;
 import ru.practicum.ewm.events.EventMapper;
+import ru.practicum.ewm.events.EventRelationsCache;
 import ru.practicum.ewm.events.EventRepository;
-import ru.practicum.ewm.events.dto.EventShortDto;
 import ru.practicum.ewm.exceptions.NotFoundException;
-import ru.practicum.ewm.requests.RequestRepository;
-import ru.practicum.ewm.requests.dto.ConfirmedRequests;
+import ru.practicum.ewm.util.OffsetPageRequest;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -31,28 +27,22 @@ import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
-    private final RequestRepository requestRepository;
+    private final PinnedCompilationsCache pinnedCompilationsCache;
+    private final EventRelationsCache eventRelationsCache;
 
     @Override
     public CompilationDto addCompilation(NewCompilationDto newCompilationDto) {
         Compilation compilation = CompilationMapper.toCompilation(newCompilationDto);
         setEvents(compilation, newCompilationDto.getEvents());
         log.info("addCompilation: {}", compilation);
+        pinnedCompilationsCache.invalidateAll();
         return buildCompilationDto(compilation);
     }
 
     @Override
     public CompilationDto updateCompilation(Long compId, UpdateCompilationDto updateCompilation) {
-        Compilation compilation = getCompilation(compId);
-        if (updateCompilation.getEvents() != null) {
-            Set<Event> events = updateCompilation.getEvents().stream()
-                    .map(id -> {
-                        Event event = new Event();
-                        event.setId(id);
-                        return event;
-                    }).collect(Collectors.toSet());
-            compilation.setEvents(events);
-        }
+        Compilation compilation = getCompilationWithEvents(compId);
+        setEvents(compilation, updateCompilation.getEvents());
         if (updateCompilation.getPinned() != null) {
             compilation.setPinned(updateCompilation.getPinned());
         }
@@ -61,6 +51,7 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setTitle(title);
         }
         log.info("updateCompilation: {}", compilation);
+        pinnedCompilationsCache.invalidateAll();
         return buildCompilationDto(compilation);
     }
 
@@ -68,38 +59,18 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     @Transactional(readOnly = true)
     public List<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Compilation> compilations;
-
-        if (pinned != null) {
-            compilations = compilationRepository.findAllByPinned(pinned, pageable);
-        } else {
-            compilations = compilationRepository.findAll(pageable).getContent();
-        }
-
-        List<Long> compilationIds = compilations.stream()
-                .map(Compilation::getId)
-                .collect(Collectors.toList());
-
-        List<Event> events = eventRepository.findAllByInitiatorIdIn(compilationIds);
-
-        List<Long> eventIds = events.stream()
-                .map(Event::getId)
-                .collect(Collectors.toList());
-
-        Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(eventIds, CONFIRMED)
-                .stream()
-                .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
-
-        List<CompilationDto> result = compilations.stream()
-                .map(compilation -> {
-                    CompilationDto compilationDto = CompilationMapper.toCompilationDto(compilation);
-                    List<EventShortDto> eventShortDtos = compilation.getEvents().stream()
-                            .map(event -> EventMapper.toEventShortDto(event, confirmedRequests.get(event.getId())))
-                            .collect(Collectors.toList());
-                    compilationDto.setEvents(eventShortDtos);
-                    return compilationDto;
-                })
+        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by("id"));
+        List<Long> ids = pinned != null
+                ? compilationRepository.findPageIdsByPinned(pinned, pageable)
+                : compilationRepository.findPageIds(pageable);
+        Map<Long, Compilation> compilations = compilationRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Compilation::getId, Function.identity(), (first, second) -> first));
+        eventRelationsCache.prefetch(compilations.values().stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .collect(Collectors.toList()));
+        List<CompilationDto> result = ids.stream()
+                .map(compilations::get)
+                .map(this::toCompilationDto)
                 .collect(Collectors.toList());
 
         log.info("getCompilations");
@@ -109,8 +80,7 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     @Transactional(readOnly = true)
     public CompilationDto getCompilationById(Long compilationId) {
-        Compilation compilation = getCompilation(compilationId);
-        CompilationDto compilationDto = buildCompilationDto(compilation);
+        CompilationDto compilationDto = toCompilationDto(getCompilationWithEvents(compilationId));
         log.info("getCompilationById: {}", compilationDto);
         return compilationDto;
     }
@@ -120,6 +90,7 @@ public class CompilationServiceImpl implements CompilationService {
         getCompilation(compilationId);
         log.info("deleteCompilation: {}", compilationId);
         compilationRepository.deleteById(compilationId);
+        pinnedCompilationsCache.invalidateAll();
     }
 
     private void setEvents(Compilation compilation, List<Long> eventIds) {
@@ -129,14 +100,14 @@ public class CompilationServiceImpl implements CompilationService {
     }
 
     private CompilationDto buildCompilationDto(Compilation compilation) {
-        CompilationDto compilationDto = CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        return toCompilationDto(compilationRepository.save(compilation));
+    }
+
+    private CompilationDto toCompilationDto(Compilation compilation) {
+        CompilationDto compilationDto = CompilationMapper.toCompilationDto(compilation);
         if (compilation.getEvents() != null) {
-            List<Long> ids = compilation.getEvents().stream().map(Event::getId).collect(Collectors.toList());
-            Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(ids, CONFIRMED)
-                    .stream()
-                    .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
             compilationDto.setEvents(compilation.getEvents().stream()
-                    .map(event -> EventMapper.toEventShortDto(event, confirmedRequests.get(event.getId())))
+                    .map(event -> EventMapper.toEventShortDto(event, eventRelationsCache))
                     .collect(Collectors.toList()));
         }
         return compilationDto;
@@ -146,4 +117,9 @@ public class CompilationServiceImpl implements CompilationService {
         return compilationRepository.findById(compilationId).orElseThrow(() ->
                 new NotFoundException("Compilation id=" + compilationId + " not found"));
     }
+
+    private Compilation getCompilationWithEvents(Long compilationId) {
+        return compilationRepository.findWithEventsById(compilationId).orElseThrow(() ->
+                new NotFoundException("Compilation id=" + compilationId + " not found"));
+    }
 }
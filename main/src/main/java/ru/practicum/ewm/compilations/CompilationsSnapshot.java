@@ -0,0 +1,12 @@
+package ru.practicum.ewm.compilations;
+
+import lombok.Value;
+
+import java.util.Set;
+
+@Value
+public class CompilationsSnapshot {
+    byte[] body;
+    String etag;
+    Set<Long> eventIds;
+}
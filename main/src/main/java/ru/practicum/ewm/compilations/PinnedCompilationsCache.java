@@ -0,0 +1,91 @@
+package ru.practicum.ewm.compilations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import ru.practicum.ewm.compilations.dto.CompilationDto;
+import ru.practicum.ewm.events.dto.EventShortDto;
+import ru.practicum.ewm.util.Util;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PinnedCompilationsCache implements InitializingBean {
+    final ObjectMapper mapper;
+    final MeterRegistry meterRegistry;
+    final AtomicLong version = new AtomicLong();
+    @Value("${compilations.pinned.cache.maximum-size:100}")
+    long maximumSize;
+    Cache<String, CompilationsSnapshot> snapshots;
+
+    @Override
+    public void afterPropertiesSet() {
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "pinnedCompilations");
+    }
+
+    public CompilationsSnapshot get(int from, int size, Supplier<List<CompilationDto>> loader) {
+        String key = from + ":" + size;
+        CompilationsSnapshot snapshot = snapshots.getIfPresent(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long loadedVersion = version.get();
+        snapshot = render(loader.get());
+        if (version.get() == loadedVersion) {
+            snapshots.put(key, snapshot);
+            if (version.get() != loadedVersion) {
+                snapshots.asMap().remove(key, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    public void invalidateAll() {
+        Util.afterCommit(() -> {
+            version.incrementAndGet();
+            snapshots.invalidateAll();
+        });
+    }
+
+    public void invalidateEvent(Long eventId) {
+        Util.afterCommit(() -> {
+            version.incrementAndGet();
+            snapshots.asMap().values().removeIf(snapshot -> snapshot.getEventIds().contains(eventId));
+        });
+    }
+
+    private CompilationsSnapshot render(List<CompilationDto> compilations) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(compilations);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render pinned compilations", e);
+        }
+        Set<Long> eventIds = compilations.stream()
+                .filter(compilation -> compilation.getEvents() != null)
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(EventShortDto::getId)
+                .collect(Collectors.toSet());
+        return new CompilationsSnapshot(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", eventIds);
+    }
+}
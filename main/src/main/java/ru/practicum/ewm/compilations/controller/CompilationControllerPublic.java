@@ -4,6 +4,8 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,11 +13,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.compilations.CompilationService;
+import ru.practicum.ewm.compilations.CompilationsSnapshot;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
 import ru.practicum.ewm.compilations.dto.CompilationDto;
 import ru.practicum.ewm.stats.util.Constants;
 
-import java.util.List;
-
 @Slf4j
 @Validated
 @RestController
@@ -23,13 +25,22 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CompilationControllerPublic {
     private final CompilationService compilationService;
+    private final PinnedCompilationsCache pinnedCompilationsCache;
 
     @GetMapping
-    public List<CompilationDto> getCompilations(@RequestParam(required = false) Boolean pinned,
-                                                @RequestParam(defaultValue = Constants.DEFAULT_PAGE_FROM) @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive Integer size) {
+    public ResponseEntity<?> getCompilations(@RequestParam(required = false) Boolean pinned,
+                                             @RequestParam(defaultValue = Constants.DEFAULT_PAGE_FROM) @PositiveOrZero Integer from,
+                                             @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive Integer size) {
         log.info("GET /compilations");
-        return compilationService.getCompilations(pinned, from, size);
+        if (!Boolean.TRUE.equals(pinned)) {
+            return ResponseEntity.ok(compilationService.getCompilations(pinned, from, size));
+        }
+        CompilationsSnapshot snapshot = pinnedCompilationsCache.get(from, size,
+                () -> compilationService.getCompilations(true, from, size));
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
     }
 
     @GetMapping("/{compilationId}")
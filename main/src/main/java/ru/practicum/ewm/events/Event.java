@@ -84,4 +84,11 @@ public class Event {
 
     @Column(nullable = false)
     String title;
+
+    @Column(insertable = false, updatable = false)
+    Long views;
+
+    @Builder.Default
+    @Column(name = "confirmed_requests", insertable = false, updatable = false)
+    Long confirmedRequests = 0L;
 }
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.events;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "event_comment_stats")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventCommentStats {
+    @Id
+    @Column(name = "event_id")
+    Long eventId;
+
+    @Column(nullable = false)
+    Long comments;
+
+    @Column(name = "last_comment_on")
+    LocalDateTime lastCommentOn;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.ewm.events;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventCommentStatsRepository extends JpaRepository<EventCommentStats, Long> {
+    List<EventCommentStats> findAllByEventIdIn(Collection<Long> eventIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_comment_stats (event_id, comments, last_comment_on) " +
+            "VALUES (:eventId, 1, :created) " +
+            "ON CONFLICT (event_id) DO UPDATE SET comments = event_comment_stats.comments + 1, " +
+            "last_comment_on = GREATEST(event_comment_stats.last_comment_on, EXCLUDED.last_comment_on)",
+            nativeQuery = true)
+    int addComment(Long eventId, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "UPDATE event_comment_stats SET comments = comments - 1, " +
+            "last_comment_on = (SELECT max(c.created) FROM comments c " +
+            "WHERE c.event_id = :eventId AND c.id <> :commentId) " +
+            "WHERE event_id = :eventId", nativeQuery = true)
+    int removeComment(Long eventId, Long commentId);
+}
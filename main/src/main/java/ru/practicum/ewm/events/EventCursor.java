@@ -0,0 +1,66 @@
+package ru.practicum.ewm.events;
+
+import lombok.Value;
+import ru.practicum.ewm.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+@Value
+public class EventCursor {
+    public static final String HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    String sort;
+    String value;
+    Long id;
+
+    public static EventCursor of(String sort, Event event) {
+        String value = "VIEWS".equals(sort)
+                ? String.valueOf(Objects.requireNonNullElse(event.getViews(), 0L))
+                : event.getEventDate().toString();
+        return new EventCursor(sort, value, event.getId());
+    }
+
+    public static EventCursor decode(String cursor, String sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Malformed cursor: " + cursor);
+            }
+            if (!parts[0].equals(sort)) {
+                throw new BadRequestException("Cursor was issued for sort " + parts[0] + ", not " + sort);
+            }
+            EventCursor eventCursor = new EventCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+            eventCursor.validate();
+            return eventCursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Malformed cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sort + SEPARATOR + value + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getEventDate() {
+        return LocalDateTime.parse(value);
+    }
+
+    public Long getViews() {
+        return Long.parseLong(value);
+    }
+
+    private void validate() {
+        if ("VIEWS".equals(sort)) {
+            getViews();
+        } else {
+            getEventDate();
+        }
+    }
+}
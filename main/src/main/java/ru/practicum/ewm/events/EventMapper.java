@@ -13,7 +13,6 @@ import ru.practicum.ewm.events.dto.EventUpdateDto;
 import ru.practicum.ewm.events.dto.EventUpdateUserDto;
 import ru.practicum.ewm.locations.LocationMapper;
 import ru.practicum.ewm.locations.LocationService;
-import ru.practicum.ewm.users.UserMapper;
 import ru.practicum.ewm.util.Util;
 
 import java.time.LocalDateTime;
@@ -33,16 +32,16 @@ public class EventMapper {
                 .build();
     }
 
-    public EventFullDto toEventFullDto(Event event, Long confirmedRequests) {
+    public EventFullDto toEventFullDto(Event event, EventRelationsCache relations) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .category(relations.getCategory(event))
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()))
+                .initiator(relations.getInitiator(event))
                 .location(LocationMapper.toLocationDto(event.getLocation()))
                 .paid(event.getPaid())
                 .participantLimit(event.getParticipantLimit())
@@ -53,16 +52,17 @@ public class EventMapper {
                 .build();
     }
 
-    public EventFullDtoWithViews toEventFullDtoWithViews(Event event, Long views, Long confirmedRequests) {
+    public EventFullDtoWithViews toEventFullDtoWithViews(Event event, Long views, EventCommentStats commentStats,
+                                                         EventRelationsCache relations) {
         return EventFullDtoWithViews.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .category(relations.getCategory(event))
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()))
+                .initiator(relations.getInitiator(event))
                 .location(LocationMapper.toLocationDto(event.getLocation()))
                 .paid(event.getPaid())
                 .participantLimit(event.getParticipantLimit())
@@ -71,33 +71,38 @@ public class EventMapper {
                 .state(event.getState())
                 .title(event.getTitle())
                 .views(views)
+                .commentCount(commentStats != null ? commentStats.getComments() : 0L)
+                .lastCommentOn(commentStats != null ? commentStats.getLastCommentOn() : null)
                 .build();
     }
 
-    public EventShortDto toEventShortDto(Event event, Long confirmedRequests) {
+    public EventShortDto toEventShortDto(Event event, EventRelationsCache relations) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .category(relations.getCategory(event))
+                .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate())
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()))
+                .initiator(relations.getInitiator(event))
                 .paid(event.getPaid())
                 .title(event.getTitle())
                 .build();
     }
 
-    public EventShortDtoWithViews toEventShortDtoWithViews(Event event, Long views, Long confirmedRequests) {
+    public EventShortDtoWithViews toEventShortDtoWithViews(Event event, Long views, EventCommentStats commentStats,
+                                                           EventRelationsCache relations) {
         return EventShortDtoWithViews.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .category(relations.getCategory(event))
+                .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate())
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()))
+                .initiator(relations.getInitiator(event))
                 .paid(event.getPaid())
                 .title(event.getTitle())
                 .views(views)
+                .commentCount(commentStats != null ? commentStats.getComments() : 0L)
+                .lastCommentOn(commentStats != null ? commentStats.getLastCommentOn() : null)
                 .build();
     }
 
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.events;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.categories.CategoryService;
+import ru.practicum.ewm.categories.dto.CategoryDto;
+import ru.practicum.ewm.users.UserShortDtoCache;
+import ru.practicum.ewm.users.dto.UserShortDto;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventRelationsCache {
+    final CategoryService categoryService;
+    final UserShortDtoCache userShortDtoCache;
+
+    public CategoryDto getCategory(Event event) {
+        return categoryService.findCategory(event.getCategory().getId());
+    }
+
+    public UserShortDto getInitiator(Event event) {
+        return userShortDtoCache.get(event.getInitiator().getId());
+    }
+
+    public void prefetch(Collection<Event> events) {
+        userShortDtoCache.getAll(events.stream()
+                .map(event -> event.getInitiator().getId())
+                .collect(Collectors.toSet()));
+    }
+}
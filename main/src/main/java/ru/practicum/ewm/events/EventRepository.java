@@ -2,9 +2,12 @@ package ru.practicum.ewm.events;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +20,28 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     Optional<Event> findByIdAndInitiatorId(Long eventId, Long userId);
 
-    @Query("SELECT e FROM Event e WHERE e.initiator.id IN :initiatorIds")
-    List<Event> findAllByInitiatorIdIn(List<Long> initiatorIds);
-
+    @EntityGraph(attributePaths = {"location"})
     List<Event> findAll(Specification<Event> specification, Pageable pageable);
 
     Set<Event> findAllByIdIn(List<Long> events);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :eventId")
+    int addConfirmedRequests(Long eventId, long delta);
+
+    @Query(value = "UPDATE events e SET confirmed_requests = CASE WHEN e.participant_limit = 0 " +
+            "THEN e.confirmed_requests + :count " +
+            "ELSE LEAST(e.participant_limit, e.confirmed_requests + :count) END " +
+            "FROM (SELECT id, confirmed_requests FROM events WHERE id = :eventId FOR UPDATE) AS before " +
+            "WHERE e.id = before.id AND (e.participant_limit = 0 OR e.confirmed_requests < e.participant_limit) " +
+            "RETURNING e.confirmed_requests - before.confirmed_requests AS granted, " +
+            "e.confirmed_requests AS \"confirmedRequests\"", nativeQuery = true)
+    SeatReservation reserveParticipants(Long eventId, long count);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE events e SET views = v.views " +
+            "FROM unnest(CAST(:eventIds AS bigint[]), CAST(:views AS bigint[])) AS v(id, views) " +
+            "WHERE e.id = v.id AND e.views <> v.views", nativeQuery = true)
+    int updateViews(Long[] eventIds, Long[] views);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.events;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import ru.practicum.ewm.events.dto.EventFullDto;
 import ru.practicum.ewm.events.dto.EventFullDtoWithViews;
 import ru.practicum.ewm.events.dto.EventNewDto;
@@ -21,8 +22,9 @@ public interface EventService {
     EventFullDto getEventByOwner(Long userId, Long eventId);
 
     List<EventShortDtoWithViews> getEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                                           LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                           Integer size, HttpServletRequest request);
+                                           LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, String cursor,
+                                           Integer from, Integer size, HttpServletRequest request,
+                                           HttpServletResponse response);
 
 
     EventFullDtoWithViews getEventById(Long eventId, HttpServletRequest request);
@@ -4,12 +4,12 @@ import jakarta.validation.ValidationException;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.categories.CategoryRepository;
 import ru.practicum.ewm.categories.CategoryServiceImpl;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
 import ru.practicum.ewm.events.dto.EventFullDto;
 import ru.practicum.ewm.events.dto.EventFullDtoWithViews;
 import ru.practicum.ewm.events.dto.EventUpdateAdminDto;
@@ -17,22 +17,18 @@ import ru.practicum.ewm.events.enums.State;
 import ru.practicum.ewm.events.enums.StateActionAdmin;
 import ru.practicum.ewm.exceptions.ForbiddenException;
 import ru.practicum.ewm.locations.LocationService;
-import ru.practicum.ewm.requests.RequestRepository;
-import ru.practicum.ewm.requests.dto.ConfirmedRequests;
-import ru.practicum.ewm.stats.dto.ViewStats;
 import ru.practicum.ewm.users.UserRepository;
+import ru.practicum.ewm.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static ru.practicum.ewm.events.enums.State.PENDING;
 import static ru.practicum.ewm.events.enums.State.PUBLISHED;
 import static ru.practicum.ewm.events.enums.StateActionAdmin.PUBLISH_EVENT;
 import static ru.practicum.ewm.events.enums.StateActionAdmin.REJECT_EVENT;
-import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
 
 @Slf4j
 @Service
@@ -41,8 +37,8 @@ import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
 public class EventServiceAdminImpl extends EventServiceImpl implements EventServiceAdmin {
 
 
-    public EventServiceAdminImpl(EventRepository eventRepository, UserRepository userRepository, CategoryRepository categoryRepository, CategoryServiceImpl categoryService, LocationService locationService, RequestRepository requestRepository, EventStatsService eventStatsService) {
-        super(eventRepository, userRepository, categoryRepository, categoryService, locationService, requestRepository, eventStatsService);
+    public EventServiceAdminImpl(EventRepository eventRepository, UserRepository userRepository, CategoryRepository categoryRepository, CategoryServiceImpl categoryService, LocationService locationService, EventStatsService eventStatsService, PinnedCompilationsCache pinnedCompilationsCache, EventRelationsCache eventRelationsCache, EventCommentStatsRepository eventCommentStatsRepository) {
+        super(eventRepository, userRepository, categoryRepository, categoryService, locationService, eventStatsService, pinnedCompilationsCache, eventRelationsCache, eventCommentStatsRepository);
     }
 
     @Override
@@ -65,8 +61,8 @@ public class EventServiceAdminImpl extends EventServiceImpl implements EventServ
         }
         EventMapper.updateEventFromDto(event, EventMapper.eventUpdateAdminToUpdateEvent(updateEvent), categoryService, locationService);
         log.info("Event update by Admin" + event);
-        return EventMapper.toEventFullDto(eventRepository.save(event),
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
+        pinnedCompilationsCache.invalidateEvent(eventId);
+        return EventMapper.toEventFullDto(eventRepository.save(event), eventRelationsCache);
     }
 
     @Override
@@ -79,21 +75,14 @@ public class EventServiceAdminImpl extends EventServiceImpl implements EventServ
         }
         Specification<Event> specification = EventSpecificationBuilder.buildByAdminParams(users, states, categories,
                 rangeStart, rangeEnd);
-        List<Event> events = eventRepository.findAll(specification, PageRequest.of(from / size, size));
-        List<Long> ids = events.stream().map(Event::getId).collect(Collectors.toList());
-        Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(ids, CONFIRMED).stream()
-                .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
-
-        List<ViewStats> statsDto = eventStatsService.getViewStatsByEvents(events);
+        List<Event> events = eventRepository.findAll(specification, OffsetPageRequest.of(from, size));
+        Map<Long, Long> views = eventStatsService.getViewsByEvents(events);
+        Map<Long, EventCommentStats> commentStats = getCommentStats(events);
+        eventRelationsCache.prefetch(events);
         List<EventFullDtoWithViews> result = new ArrayList<>();
         for (Event event : events) {
-            if (!statsDto.isEmpty()) {
-                result.add(EventMapper.toEventFullDtoWithViews(event, statsDto.get(0).getHits(),
-                        confirmedRequests.getOrDefault(event.getId(), 0L)));
-            } else {
-                result.add(EventMapper.toEventFullDtoWithViews(event, 0L,
-                        confirmedRequests.getOrDefault(event.getId(), 0L)));
-            }
+            result.add(EventMapper.toEventFullDtoWithViews(event, views.getOrDefault(event.getId(), 0L),
+                    commentStats.get(event.getId()), eventRelationsCache));
         }
         log.info("get Events by Admin");
         return result;
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.events;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ValidationException;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.categories.Category;
 import ru.practicum.ewm.categories.CategoryRepository;
 import ru.practicum.ewm.categories.CategoryServiceImpl;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
 import ru.practicum.ewm.events.dto.EventFullDto;
 import ru.practicum.ewm.events.dto.EventFullDtoWithViews;
 import ru.practicum.ewm.events.dto.EventNewDto;
@@ -24,31 +27,31 @@ import ru.practicum.ewm.events.dto.EventShortDtoWithViews;
 import ru.practicum.ewm.events.dto.EventUpdateUserDto;
 import ru.practicum.ewm.events.enums.State;
 import ru.practicum.ewm.events.enums.StateActionPrivate;
+import ru.practicum.ewm.events.enums.TextSearchMode;
 import ru.practicum.ewm.exceptions.BadRequestException;
 import ru.practicum.ewm.exceptions.ForbiddenException;
 import ru.practicum.ewm.exceptions.NotFoundException;
 import ru.practicum.ewm.locations.Location;
 import ru.practicum.ewm.locations.LocationMapper;
 import ru.practicum.ewm.locations.LocationService;
-import ru.practicum.ewm.requests.RequestRepository;
-import ru.practicum.ewm.requests.dto.ConfirmedRequests;
 import ru.practicum.ewm.stats.dto.EndpointHitDto;
-import ru.practicum.ewm.stats.dto.ViewStats;
 import ru.practicum.ewm.users.User;
 import ru.practicum.ewm.users.UserRepository;
+import ru.practicum.ewm.util.OffsetPageRequest;
 import ru.practicum.ewm.util.Util;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.ewm.events.enums.State.PENDING;
 import static ru.practicum.ewm.events.enums.State.PUBLISHED;
 import static ru.practicum.ewm.events.enums.StateActionPrivate.CANCEL_REVIEW;
 import static ru.practicum.ewm.events.enums.StateActionPrivate.SEND_TO_REVIEW;
-import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
+import static ru.practicum.ewm.events.enums.TextSearchMode.FULL_TEXT;
 
 
 @Slf4j
@@ -63,10 +66,14 @@ public class EventServiceImpl implements EventService {
     final CategoryRepository categoryRepository;
     final CategoryServiceImpl categoryService;
     final LocationService locationService;
-    final RequestRepository requestRepository;
     final EventStatsService eventStatsService;
+    final PinnedCompilationsCache pinnedCompilationsCache;
+    final EventRelationsCache eventRelationsCache;
+    final EventCommentStatsRepository eventCommentStatsRepository;
     @Value("${app}")
     String app;
+    @Value("${events.search.mode:FULL_TEXT}")
+    TextSearchMode textSearchMode;
 
     @Override
     public EventFullDto addEvent(Long userId, EventNewDto eventNewDto) {
@@ -84,7 +91,7 @@ public class EventServiceImpl implements EventService {
         event.setCreatedOn(LocalDateTime.now());
         event.setState(PENDING);
         log.info("Event add" + event);
-        return EventMapper.toEventFullDto(eventRepository.save(event), 0L);
+        return EventMapper.toEventFullDto(eventRepository.save(event), eventRelationsCache);
     }
 
     @Override
@@ -103,22 +110,19 @@ public class EventServiceImpl implements EventService {
             }
         }
         log.info("Event update by Owner" + event);
-        return EventMapper.toEventFullDto(eventRepository.save(event),
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
+        pinnedCompilationsCache.invalidateEvent(eventId);
+        return EventMapper.toEventFullDto(eventRepository.save(event), eventRelationsCache);
     }
 
 
     @Override
     @Transactional(readOnly = true)
     public List<EventShortDto> getEventsByOwner(Long userId, Integer from, Integer size) {
-        List<Event> events = eventRepository.findAllByInitiatorId(userId, PageRequest.of(from / size, size));
-        List<Long> ids = events.stream().map(Event::getId).collect(Collectors.toList());
-        Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(ids, CONFIRMED)
-                .stream()
-                .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
+        List<Event> events = eventRepository.findAllByInitiatorId(userId, OffsetPageRequest.of(from, size));
         log.info("getEventsByOwner");
+        eventRelationsCache.prefetch(events);
         return events.stream()
-                .map(event -> EventMapper.toEventShortDto(event, confirmedRequests.getOrDefault(event.getId(), 0L)))
+                .map(event -> EventMapper.toEventShortDto(event, eventRelationsCache))
                 .collect(Collectors.toList());
     }
 
@@ -126,47 +130,63 @@ public class EventServiceImpl implements EventService {
     @Transactional(readOnly = true)
     public EventFullDto getEventByOwner(Long userId, Long eventId) {
         log.info("getEventByOwner ");
-        return EventMapper.toEventFullDto(getEvent(eventId, userId),
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
+        return EventMapper.toEventFullDto(getEvent(eventId, userId), eventRelationsCache);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<EventShortDtoWithViews> getEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                                                  LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                                  Integer size, HttpServletRequest request) {
+                                                  LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, String cursor,
+                                                  Integer from, Integer size, HttpServletRequest request,
+                                                  HttpServletResponse response) {
         if (rangeStart != null && rangeEnd != null && rangeStart.isAfter(rangeEnd)) {
             throw new BadRequestException("START can't be after END.");
         }
 
-        Specification<Event> specification = EventSpecificationBuilder.build(text, categories, paid, rangeStart, rangeEnd, onlyAvailable);
+        Specification<Event> specification = EventSpecificationBuilder.build(text, textSearchMode, categories, paid,
+                rangeStart, rangeEnd, onlyAvailable);
 
-        PageRequest pageRequest;
+        Sort order;
         switch (sort) {
             case "EVENT_DATE":
-                pageRequest = PageRequest.of(from / size, size, Sort.by("eventDate"));
+                order = Sort.by(Sort.Order.asc("eventDate"), Sort.Order.asc("id"));
                 break;
             case "VIEWS":
-                pageRequest = PageRequest.of(from / size, size, Sort.by("views").descending());
+                order = Sort.by(Sort.Order.desc("views"), Sort.Order.asc("id"));
+                break;
+            case "RELEVANCE":
+                if (text == null || textSearchMode != FULL_TEXT) {
+                    throw new BadRequestException("Sort RELEVANCE requires text and full-text search mode.");
+                }
+                if (cursor != null) {
+                    throw new BadRequestException("Cursor pagination is not supported for sort RELEVANCE.");
+                }
+                order = Sort.unsorted();
+                specification = specification.and(EventSpecificationBuilder.orderByRelevance(text));
                 break;
             default:
                 throw new ValidationException("Unknown sort: " + sort);
         }
-        List<Event> events = eventRepository.findAll(specification, pageRequest);
-        List<Long> ids = events.stream().map(Event::getId).collect(Collectors.toList());
-        Map<Long, Long> confirmedRequests = requestRepository.findAllByEventIdInAndStatus(ids, CONFIRMED).stream()
-                .collect(Collectors.toMap(ConfirmedRequests::getEvent, ConfirmedRequests::getCount));
-
-        List<ViewStats> statsDto = eventStatsService.getViewStatsByEvents(events);
+        Pageable pageable;
+        if (cursor != null) {
+            if (!cursor.isEmpty()) {
+                specification = specification.and(EventSpecificationBuilder.after(EventCursor.decode(cursor, sort)));
+            }
+            pageable = PageRequest.of(0, size, order);
+        } else {
+            pageable = OffsetPageRequest.of(from, size, order);
+        }
+        List<Event> events = eventRepository.findAll(specification, pageable);
+        if (cursor != null && events.size() == size) {
+            response.setHeader(EventCursor.HEADER, EventCursor.of(sort, events.get(events.size() - 1)).encode());
+        }
+        Map<Long, Long> views = eventStatsService.getViewsByEvents(events);
+        Map<Long, EventCommentStats> commentStats = getCommentStats(events);
+        eventRelationsCache.prefetch(events);
         List<EventShortDtoWithViews> result = new ArrayList<>();
         for (Event event : events) {
-            if (!statsDto.isEmpty()) {
-                result.add(EventMapper.toEventShortDtoWithViews(event, statsDto.get(0).getHits(),
-                        confirmedRequests.getOrDefault(event.getId(), 0L)));
-            } else {
-                result.add(EventMapper.toEventShortDtoWithViews(event, 0L,
-                        confirmedRequests.getOrDefault(event.getId(), 0L)));
-            }
+            result.add(EventMapper.toEventShortDtoWithViews(event, views.getOrDefault(event.getId(), 0L),
+                    commentStats.get(event.getId()), eventRelationsCache));
         }
 
         eventStatsService.saveHit(new EndpointHitDto(app, request.getRequestURI(), request.getRemoteAddr(),
@@ -183,15 +203,9 @@ public class EventServiceImpl implements EventService {
         if (event.getState() != PUBLISHED) {
             throw new NotFoundException("Event must be published.");
         }
-        List<ViewStats> statsDto = eventStatsService.getViewStatsByEvent(event);
-        EventFullDtoWithViews result;
-        if (!statsDto.isEmpty()) {
-            result = EventMapper.toEventFullDtoWithViews(event, statsDto.get(0).getHits(),
-                    requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
-        } else {
-            result = EventMapper.toEventFullDtoWithViews(event, 0L,
-                    requestRepository.countByEventIdAndStatus(eventId, CONFIRMED));
-        }
+        EventFullDtoWithViews result = EventMapper.toEventFullDtoWithViews(event,
+                eventStatsService.getViewsByEvent(event), eventCommentStatsRepository.findById(eventId).orElse(null),
+                eventRelationsCache);
 
         eventStatsService.saveHit(new EndpointHitDto(app, request.getRequestURI(), request.getRemoteAddr(),
                 LocalDateTime.now()));
@@ -199,6 +213,11 @@ public class EventServiceImpl implements EventService {
         return result;
     }
 
+    protected Map<Long, EventCommentStats> getCommentStats(List<Event> events) {
+        return eventCommentStatsRepository.findAllByEventIdIn(events.stream().map(Event::getId).toList()).stream()
+                .collect(Collectors.toMap(EventCommentStats::getEventId, Function.identity()));
+    }
+
     protected Event getEvent(Long eventId) {
         return eventRepository.findById(eventId).orElseThrow(() ->
                 new NotFoundException("Event with id=" + eventId + " was not found"));
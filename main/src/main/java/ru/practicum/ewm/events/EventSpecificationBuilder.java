@@ -1,24 +1,33 @@
 package ru.practicum.ewm.events;
 
 import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.ewm.events.enums.TextSearchMode;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
 import static ru.practicum.ewm.events.enums.State.PUBLISHED;
+import static ru.practicum.ewm.events.enums.TextSearchMode.FULL_TEXT;
 
 public class EventSpecificationBuilder {
+    private static final char LIKE_ESCAPE = '\\';
 
-    public static Specification<Event> build(String text, List<Long> categories, Boolean paid,
-                                             LocalDateTime rangeStart, LocalDateTime rangeEnd,
+    public static Specification<Event> build(String text, TextSearchMode textSearchMode, List<Long> categories,
+                                             Boolean paid, LocalDateTime rangeStart, LocalDateTime rangeEnd,
                                              Boolean onlyAvailable) {
         Specification<Event> specification = Specification.where(null);
-        if (text != null) {
+        if (text != null && textSearchMode == FULL_TEXT) {
+            specification = specification.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.isTrue(criteriaBuilder.function("event_search_matches", Boolean.class,
+                            root.get("title"), root.get("annotation"), root.get("description"),
+                            criteriaBuilder.literal(text))));
+        } else if (text != null) {
+            String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
             specification = specification.and((root, query, criteriaBuilder) ->
                     criteriaBuilder.or(
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), "%" + text.toLowerCase() + "%"),
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), "%" + text.toLowerCase() + "%")
+                            criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), pattern, LIKE_ESCAPE),
+                            criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern, LIKE_ESCAPE)
                     ));
         }
         if (categories != null) {
@@ -39,7 +48,9 @@ public class EventSpecificationBuilder {
         }
         if (onlyAvailable != null && onlyAvailable) {
             specification = specification.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.greaterThanOrEqualTo(root.get("participantLimit"), 0));
+                    criteriaBuilder.or(
+                            criteriaBuilder.equal(root.get("participantLimit"), 0),
+                            criteriaBuilder.gt(root.get("participantLimit"), root.get("confirmedRequests"))));
         }
         specification = specification.and((root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("state"), PUBLISHED));
@@ -47,6 +58,34 @@ public class EventSpecificationBuilder {
         return specification;
     }
 
+    public static Specification<Event> orderByRelevance(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        criteriaBuilder.desc(criteriaBuilder.function("event_search_rank", Float.class,
+                                root.get("title"), root.get("annotation"), root.get("description"),
+                                criteriaBuilder.literal(text))),
+                        criteriaBuilder.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Event> after(EventCursor cursor) {
+        if ("VIEWS".equals(cursor.getSort())) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(root.get("views"), cursor.getViews()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(root.get("views"), cursor.getViews()),
+                            criteriaBuilder.greaterThan(root.get("id"), cursor.getId())));
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(root.get("eventDate"), cursor.getEventDate()),
+                criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(root.get("eventDate"), cursor.getEventDate()),
+                        criteriaBuilder.greaterThan(root.get("id"), cursor.getId())));
+    }
+
     public static Specification<Event> buildByAdminParams(List<Long> users, List<String> states, List<Long> categories,
                                                           LocalDateTime rangeStart, LocalDateTime rangeEnd) {
         Specification<Event> specification = Specification.where(null);
@@ -72,5 +111,15 @@ public class EventSpecificationBuilder {
         }
         return specification;
     }
-}
 
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,23 +1,39 @@
 package ru.practicum.ewm.events;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.exceptions.NotFoundException;
+import ru.practicum.ewm.stats.client.AsyncStatsClient;
 import ru.practicum.ewm.stats.client.StatsClient;
+import ru.practicum.ewm.stats.client.StatsUnavailableException;
 import ru.practicum.ewm.stats.dto.EndpointHitDto;
 import ru.practicum.ewm.stats.dto.ViewStats;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
@@ -25,31 +41,163 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 @FieldDefaults(level = AccessLevel.PRIVATE)
-public class EventStatsService {
+public class EventStatsService implements InitializingBean, DisposableBean {
+    private static final String EVENT_URI_PREFIX = "/events/";
+
     final StatsClient statsClient;
-    final ObjectMapper mapper;
-
-    public List<ViewStats> getViewStatsByEvents(List<Event> events) {
-        List<String> uris = events.stream()
-                .map(event -> String.format("/events/%s", event.getId()))
-                .collect(Collectors.toList());
-        LocalDateTime start = events.stream()
-                .map(Event::getCreatedOn)
+    final AsyncStatsClient asyncStatsClient;
+    final MeterRegistry meterRegistry;
+    @Value("${stats.views.approximate:false}")
+    boolean approximateViews;
+    @Value("${stats.views.uris-per-request:200}")
+    int urisPerRequest;
+    @Value("${stats.views.cache.enabled:false}")
+    boolean cacheEnabled;
+    @Value("${stats.views.cache.maximum-size:10000}")
+    long cacheMaximumSize;
+    @Value("${stats.views.cache.refresh-after-ms:5000}")
+    long cacheRefreshAfterMs;
+    @Value("${stats.views.cache.expire-after-ms:600000}")
+    long cacheExpireAfterMs;
+    @Value("${spring.threads.virtual.enabled:false}")
+    boolean virtualThreads;
+    ExecutorService refreshExecutor;
+    LoadingCache<EventViewsKey, Long> viewsCache;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!cacheEnabled) {
+            return;
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (virtualThreads) {
+            refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(refreshExecutor);
+        }
+        viewsCache = builder
+                .maximumSize(cacheMaximumSize)
+                .refreshAfterWrite(Duration.ofMillis(cacheRefreshAfterMs))
+                .expireAfterWrite(Duration.ofMillis(cacheExpireAfterMs))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Long load(EventViewsKey key) {
+                        return fetchViews(List.of(key)).get(key);
+                    }
+
+                    @Override
+                    public Map<EventViewsKey, Long> loadAll(Set<? extends EventViewsKey> keys) {
+                        return fetchViews(keys);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, viewsCache, "eventViews");
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.close();
+        }
+    }
+
+    public Map<Long, Long> getViewsByEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return getCurrentViewsByEvents(events);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load views of {} events, using cached values: {}", events.size(), e.getMessage());
+        }
+        Map<Long, Long> result = new HashMap<>();
+        for (Event event : events) {
+            if (event.getViews() != null) {
+                result.put(event.getId(), event.getViews());
+            }
+        }
+        if (viewsCache != null) {
+            viewsCache.getAllPresent(events.stream().map(EventViewsKey::of).toList())
+                    .forEach((key, hits) -> result.put(key.getEventId(), hits));
+        }
+        return result;
+    }
+
+    public Map<Long, Long> getCurrentViewsByEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        List<EventViewsKey> keys = events.stream().map(EventViewsKey::of).toList();
+        Map<EventViewsKey, Long> views = viewsCache == null ? fetchViews(keys) : viewsCache.getAll(keys);
+        Map<Long, Long> result = new HashMap<>();
+        views.forEach((key, hits) -> result.put(key.getEventId(), hits));
+        return result;
+    }
+
+    public long getViewsByEvent(Event event) {
+        return getViewsByEvents(List.of(event)).getOrDefault(event.getId(), 0L);
+    }
+
+    public Set<Long> getViewedEventIds(LocalDateTime start, LocalDateTime end) {
+        Set<Long> eventIds = new HashSet<>();
+        for (ViewStats viewStats : getStats(start, end, null, false).join()) {
+            Long eventId = parseEventId(viewStats.getUri());
+            if (eventId != null) {
+                eventIds.add(eventId);
+            }
+        }
+        return eventIds;
+    }
+
+    public void saveHit(EndpointHitDto hit) {
+        try {
+            statsClient.saveHit(hit);
+        } catch (StatsUnavailableException e) {
+            log.warn("Failed to save hit {}: {}", hit.getUri(), e.getMessage());
+        }
+    }
+
+    private Map<EventViewsKey, Long> fetchViews(Collection<? extends EventViewsKey> keys) {
+        List<String> uris = new ArrayList<>(keys.size());
+        Map<Long, EventViewsKey> keysById = new HashMap<>();
+        Map<EventViewsKey, Long> views = new HashMap<>();
+        for (EventViewsKey key : keys) {
+            uris.add(EVENT_URI_PREFIX + key.getEventId());
+            keysById.put(key.getEventId(), key);
+            views.put(key, 0L);
+        }
+        LocalDateTime start = keys.stream()
+                .map(EventViewsKey::getCreatedOn)
                 .min(LocalDateTime::compareTo)
                 .orElseThrow(() -> new NotFoundException("Start was not found"));
-        ResponseEntity<Object> response = statsClient.getStats(start, LocalDateTime.now(), uris, true);
-        return mapper.convertValue(response.getBody(), new TypeReference<>() {
-        });
+        LocalDateTime end = LocalDateTime.now();
+        List<CompletableFuture<List<ViewStats>>> responses = new ArrayList<>();
+        for (int i = 0; i < uris.size(); i += urisPerRequest) {
+            responses.add(getStats(start, end, uris.subList(i, Math.min(i + urisPerRequest, uris.size())), true));
+        }
+        for (CompletableFuture<List<ViewStats>> response : responses) {
+            for (ViewStats viewStats : response.join()) {
+                EventViewsKey key = keysById.get(parseEventId(viewStats.getUri()));
+                if (key != null) {
+                    views.merge(key, viewStats.getHits(), Long::sum);
+                }
+            }
+        }
+        return views;
     }
 
-    public List<ViewStats> getViewStatsByEvent(Event event) {
-        ResponseEntity<Object> response = statsClient.getStats(event.getCreatedOn(), LocalDateTime.now(),
-                List.of(String.format("/events/%s", event.getId())), true);
-        return mapper.convertValue(response.getBody(), new TypeReference<>() {
-        });
+    private CompletableFuture<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                        boolean unique) {
+        return asyncStatsClient.getStats(start, end, uris, unique, unique && approximateViews);
     }
 
-    public void saveHit(EndpointHitDto hit) {
-        statsClient.saveHit(hit);
+    private Long parseEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX) || uri.length() == EVENT_URI_PREFIX.length()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(uri, EVENT_URI_PREFIX.length(), uri.length(), 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.ewm.events;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class EventViewsKey {
+    Long eventId;
+    LocalDateTime createdOn;
+
+    public static EventViewsKey of(Event event) {
+        return new EventViewsKey(event.getId(), event.getCreatedOn());
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.ewm.events;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConditionalOnProperty(value = "events.views.sync.enabled", matchIfMissing = true)
+public class EventViewsSyncJob {
+    final EventViewsSyncService eventViewsSyncService;
+
+    @Scheduled(fixedDelayString = "${events.views.sync.interval-ms:60000}")
+    public void syncViews() {
+        try {
+            eventViewsSyncService.syncViews();
+        } catch (RuntimeException e) {
+            log.warn("Event views sync failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.ewm.events;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventViewsSyncService {
+    final EventRepository eventRepository;
+    final EventStatsService eventStatsService;
+    @Value("${events.views.sync.overlap-ms:60000}")
+    long overlapMs;
+    @Value("${events.views.sync.initial-lookback-ms:86400000}")
+    long initialLookbackMs;
+    @Value("${stats.views.uris-per-request:200}")
+    int eventsPerRequest;
+    volatile LocalDateTime lastSync;
+
+    public int syncViews() {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = lastSync != null
+                ? lastSync.minus(Duration.ofMillis(overlapMs))
+                : end.minus(Duration.ofMillis(initialLookbackMs));
+        List<Long> ids = new ArrayList<>(eventStatsService.getViewedEventIds(start, end));
+        int updated = 0;
+        for (int i = 0; i < ids.size(); i += eventsPerRequest) {
+            List<Event> events = new ArrayList<>(eventRepository.findAllByIdIn(
+                    ids.subList(i, Math.min(i + eventsPerRequest, ids.size()))));
+            Map<Long, Long> views = eventStatsService.getCurrentViewsByEvents(events);
+            Long[] eventIds = new Long[events.size()];
+            Long[] eventViews = new Long[events.size()];
+            for (int j = 0; j < events.size(); j++) {
+                eventIds[j] = events.get(j).getId();
+                eventViews[j] = views.getOrDefault(eventIds[j], 0L);
+            }
+            updated += eventRepository.updateViews(eventIds, eventViews);
+        }
+        lastSync = end;
+        log.debug("Synced views of {} viewed events, {} changed", ids.size(), updated);
+        return updated;
+    }
+}
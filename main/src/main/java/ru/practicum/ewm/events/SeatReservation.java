@@ -0,0 +1,7 @@
+package ru.practicum.ewm.events;
+
+public interface SeatReservation {
+    Long getGranted();
+
+    Long getConfirmedRequests();
+}
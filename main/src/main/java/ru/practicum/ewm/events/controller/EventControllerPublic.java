@@ -2,6 +2,7 @@ package ru.practicum.ewm.events.controller;
 
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -41,14 +42,16 @@ public class EventControllerPublic {
                                                   LocalDateTime rangeEnd,
                                                   @RequestParam(defaultValue = "false") Boolean onlyAvailable,
                                                   @RequestParam(defaultValue = "EVENT_DATE") String sort,
+                                                  @RequestParam(required = false) String cursor,
                                                   @RequestParam(value = Constants.REQ_PARAM_FROM, defaultValue = Constants.DEFAULT_PAGE_FROM) @PositiveOrZero
                                                   Integer from,
                                                   @RequestParam(value = Constants.REQ_PARAM_SIZE, defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive
                                                   Integer size,
-                                                  HttpServletRequest request) {
+                                                  HttpServletRequest request,
+                                                  HttpServletResponse response) {
         log.info("GET / /events / getEvents");
         return eventService.getEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
-                sort, from, size, request);
+                sort, cursor, from, size, request, response);
     }
 
     @GetMapping("/{eventId}")
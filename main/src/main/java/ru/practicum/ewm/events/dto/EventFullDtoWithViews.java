@@ -55,4 +55,9 @@ public class EventFullDtoWithViews {
     String title;
 
     Long views;
+
+    Long commentCount;
+
+    @JsonFormat(pattern = Constants.DATE_TIME_FORMAT)
+    LocalDateTime lastCommentOn;
 }
@@ -37,4 +37,9 @@ public class EventShortDtoWithViews {
     String title;
 
     Long views;
+
+    Long commentCount;
+
+    @JsonFormat(pattern = Constants.DATE_TIME_FORMAT)
+    LocalDateTime lastCommentOn;
 }
\ No newline at end of file
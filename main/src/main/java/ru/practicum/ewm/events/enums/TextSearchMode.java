@@ -0,0 +1,6 @@
+package ru.practicum.ewm.events.enums;
+
+public enum TextSearchMode {
+    FULL_TEXT,
+    SUBSTRING
+}
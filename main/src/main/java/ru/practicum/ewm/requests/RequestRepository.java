@@ -1,31 +1,36 @@
 package ru.practicum.ewm.requests;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import ru.practicum.ewm.requests.dto.ConfirmedRequests;
-import ru.practicum.ewm.requests.enums.RequestStatus;
 
 import java.util.List;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Request findByIdAndRequesterId(Long requestId, Long userId);
 
     List<Request> findAllByEventId(Long eventId);
 
     List<Request> findAllByRequesterId(Long userId);
 
-    List<Request> findAllByEventIdAndIdInAndStatus(Long eventId, List<Long> requestId, RequestStatus status);
+    @Query(value = "UPDATE requests SET status = 'CONFIRMED' WHERE status = 'PENDING' AND id IN (" +
+            "SELECT id FROM requests WHERE event_id = :eventId AND id IN (:ids) AND status = 'PENDING' " +
+            "ORDER BY id LIMIT :limit FOR UPDATE) " +
+            "RETURNING *", nativeQuery = true)
+    List<Request> confirmPending(Long eventId, List<Long> ids, long limit);
 
-    Boolean existsByRequesterIdAndEventId(Long userId, Long eventId);
+    @Query(value = "UPDATE requests SET status = 'REJECTED' " +
+            "WHERE event_id = :eventId AND id IN (:ids) AND status = 'PENDING' " +
+            "RETURNING *", nativeQuery = true)
+    List<Request> rejectPending(Long eventId, List<Long> ids);
 
-    long countByEventIdAndStatus(Long eventId, RequestStatus status);
+    @Query(value = "UPDATE requests SET status = 'REJECTED' WHERE event_id = :eventId AND status = 'PENDING' " +
+            "RETURNING *", nativeQuery = true)
+    List<Request> rejectAllPending(Long eventId);
 
-    @Query("SELECT new ru.practicum.ewm.requests.dto.ConfirmedRequests(COUNT(DISTINCT r.id), r.event.id) " +
-            "FROM Request AS r " +
-            "WHERE r.event.id IN (:ids) AND r.status = :status " +
-            "GROUP BY (r.event)")
-    List<ConfirmedRequests> findAllByEventIdInAndStatus(@Param("ids") List<Long> ids, @Param("status") RequestStatus status);
+    Boolean existsByRequesterIdAndEventId(Long userId, Long eventId);
 }
\ No newline at end of file
@@ -3,10 +3,13 @@ package ru.practicum.ewm.requests;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
 import ru.practicum.ewm.events.Event;
 import ru.practicum.ewm.events.EventRepository;
+import ru.practicum.ewm.events.SeatReservation;
 import ru.practicum.ewm.events.enums.State;
 import ru.practicum.ewm.exceptions.ForbiddenException;
 import ru.practicum.ewm.exceptions.NotFoundException;
@@ -19,12 +22,12 @@ import ru.practicum.ewm.users.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static ru.practicum.ewm.requests.enums.RequestStatus.CONFIRMED;
 import static ru.practicum.ewm.requests.enums.RequestStatus.PENDING;
-import static ru.practicum.ewm.requests.enums.RequestStatus.REJECTED;
 
 @Slf4j
 @Service
@@ -34,6 +37,9 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final PinnedCompilationsCache pinnedCompilationsCache;
+    @Value("${requests.reject-pending-on-limit:false}")
+    private boolean rejectPendingOnLimit;
 
     @Override
     public RequestDto addRequest(Long userId, Long eventId) {
@@ -49,8 +55,7 @@ public class RequestServiceImpl implements RequestService {
         if (!event.getState().equals(State.PUBLISHED)) {
             throw new ForbiddenException("Participation is possible only in published event.");
         }
-        if (event.getParticipantLimit() != 0 && event.getParticipantLimit() <=
-                requestRepository.countByEventIdAndStatus(eventId, CONFIRMED)) {
+        if (event.getParticipantLimit() != 0 && event.getParticipantLimit() <= event.getConfirmedRequests()) {
             throw new ForbiddenException("Participant limit has been reached.");
         }
         Request request = new Request();
@@ -63,8 +68,15 @@ public class RequestServiceImpl implements RequestService {
         } else {
             request.setStatus(CONFIRMED);
         }
+        request = requestRepository.save(request);
+        if (request.getStatus() == CONFIRMED) {
+            if (eventRepository.reserveParticipants(eventId, 1) == null) {
+                throw new ForbiddenException("Participant limit has been reached.");
+            }
+            pinnedCompilationsCache.invalidateEvent(eventId);
+        }
         log.info("Request was created");
-        return RequestMapper.toRequestDto(requestRepository.save(request));
+        return RequestMapper.toRequestDto(request);
     }
 
     @Override
@@ -76,36 +88,46 @@ public class RequestServiceImpl implements RequestService {
         if (!event.getInitiator().equals(initiator)) {
             throw new ValidationException("User isn't initiator.");
         }
-        long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, CONFIRMED);
-        if (event.getParticipantLimit() > 0 && event.getParticipantLimit() <= confirmedRequests) {
+        if (event.getParticipantLimit() > 0 && event.getParticipantLimit() <= event.getConfirmedRequests()) {
             throw new ForbiddenException("The participant limit has been reached.");
         }
-        List<RequestDto> confirmed = new ArrayList<>();
-        List<RequestDto> rejected = new ArrayList<>();
-        List<Request> requests = requestRepository.findAllByEventIdAndIdInAndStatus(eventId,
-                statusUpdateRequest.getRequestIds(), PENDING);
-        for (int i = 0; i < requests.size(); i++) {
-            Request request = requests.get(i);
-            if (statusUpdateRequest.getStatus() == REJECTED) {
-                request.setStatus(REJECTED);
-                rejected.add(RequestMapper.toRequestDto(request));
+        List<Long> requestIds = statusUpdateRequest.getRequestIds();
+        if (requestIds == null || requestIds.isEmpty()) {
+            return new EventRequestStatusUpdateResult(List.of(), List.of());
+        }
+        List<Request> confirmed = new ArrayList<>();
+        boolean limitReached = false;
+        if (statusUpdateRequest.getStatus() == CONFIRMED) {
+            SeatReservation reservation = eventRepository.reserveParticipants(eventId, requestIds.size());
+            long granted = reservation == null ? 0 : reservation.getGranted();
+            if (granted > 0) {
+                confirmed.addAll(requestRepository.confirmPending(eventId, requestIds, granted));
             }
-            if (statusUpdateRequest.getStatus() == CONFIRMED && event.getParticipantLimit() > 0 &&
-                    (confirmedRequests + i) < event.getParticipantLimit()) {
-                request.setStatus(CONFIRMED);
-                confirmed.add(RequestMapper.toRequestDto(request));
-            } else {
-                request.setStatus(REJECTED);
-                rejected.add(RequestMapper.toRequestDto(request));
+            long surplus = granted - confirmed.size();
+            if (surplus > 0) {
+                eventRepository.addConfirmedRequests(eventId, -surplus);
             }
+            limitReached = event.getParticipantLimit() > 0 && (reservation == null
+                    || reservation.getConfirmedRequests() - surplus >= event.getParticipantLimit());
+        }
+        if (!confirmed.isEmpty()) {
+            pinnedCompilationsCache.invalidateEvent(eventId);
         }
-        log.info("Request was updated");
-        return new EventRequestStatusUpdateResult(confirmed, rejected);
+        List<Request> rejected = new ArrayList<>(requestRepository.rejectPending(eventId, requestIds));
+        if (limitReached && rejectPendingOnLimit) {
+            rejected.addAll(requestRepository.rejectAllPending(eventId));
+        }
+        log.info("Request was updated: {} confirmed, {} rejected", confirmed.size(), rejected.size());
+        return new EventRequestStatusUpdateResult(toRequestDtos(confirmed), toRequestDtos(rejected));
     }
 
     @Override
     public RequestDto cancelRequest(Long userId, Long requestId) {
         Request request = requestRepository.findByIdAndRequesterId(requestId, userId);
+        if (request.getStatus() == CONFIRMED) {
+            eventRepository.addConfirmedRequests(request.getEvent().getId(), -1);
+            pinnedCompilationsCache.invalidateEvent(request.getEvent().getId());
+        }
         request.setStatus(RequestStatus.CANCELED);
         log.info("Request was canceled");
         return RequestMapper.toRequestDto(requestRepository.save(request));
@@ -131,6 +153,13 @@ public class RequestServiceImpl implements RequestService {
                 .map(RequestMapper::toRequestDto).collect(Collectors.toList());
     }
 
+    private List<RequestDto> toRequestDtos(List<Request> requests) {
+        return requests.stream()
+                .sorted(Comparator.comparing(Request::getId))
+                .map(RequestMapper::toRequestDto)
+                .collect(Collectors.toList());
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("User with id=" + userId + " was not found"));
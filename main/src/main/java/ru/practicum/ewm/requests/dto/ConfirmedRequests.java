@@ -1,17 +0,0 @@
-package ru.practicum.ewm.requests.dto;
-
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
-import lombok.experimental.FieldDefaults;
-
-@Getter
-@Setter
-@AllArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE)
-public class ConfirmedRequests {
-    long count;
-    Long event;
-
-}
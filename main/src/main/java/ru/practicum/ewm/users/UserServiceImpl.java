@@ -3,13 +3,13 @@ package ru.practicum.ewm.users;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.exceptions.NotFoundException;
 import ru.practicum.ewm.users.dto.UserDto;
 import ru.practicum.ewm.users.dto.UserNewDto;
+import ru.practicum.ewm.util.OffsetPageRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserShortDtoCache userShortDtoCache;
 
     @Override
     public UserDto addUser(UserNewDto userNewDto) {
@@ -30,7 +31,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public List<UserDto> getUsers(List<Long> userIds, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = OffsetPageRequest.of(from, size);
         if (userIds == null) {
             log.info("getUsers userIds is null");
             return userRepository.findAll(pageable).map(UserMapper::toUserDto).getContent();
@@ -49,5 +50,6 @@ public class UserServiceImpl implements UserService {
         }
         log.info("deleteUser by userId=" + userId);
         userRepository.deleteById(userId);
+        userShortDtoCache.invalidate(userId);
     }
 }
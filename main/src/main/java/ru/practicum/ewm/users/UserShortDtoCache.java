@@ -0,0 +1,64 @@
+package ru.practicum.ewm.users;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.users.dto.UserShortDto;
+import ru.practicum.ewm.util.Util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserShortDtoCache implements InitializingBean {
+    final UserRepository userRepository;
+    final MeterRegistry meterRegistry;
+    @Value("${users.short-cache.maximum-size:10000}")
+    long maximumSize;
+    LoadingCache<Long, UserShortDto> users;
+
+    @Override
+    public void afterPropertiesSet() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public UserShortDto load(Long userId) {
+                        return userRepository.findById(userId).map(UserMapper::toUserShortDto).orElse(null);
+                    }
+
+                    @Override
+                    public Map<Long, UserShortDto> loadAll(Set<? extends Long> userIds) {
+                        return userRepository.findAllById(List.copyOf(userIds)).stream()
+                                .collect(Collectors.toMap(User::getId, UserMapper::toUserShortDto));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "userShort");
+    }
+
+    public UserShortDto get(Long userId) {
+        return users.get(userId);
+    }
+
+    public Map<Long, UserShortDto> getAll(Collection<Long> userIds) {
+        return users.getAll(userIds);
+    }
+
+    public void invalidate(Long userId) {
+        Util.afterCommit(() -> users.invalidate(userId));
+    }
+}
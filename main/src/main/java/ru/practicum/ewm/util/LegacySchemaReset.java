@@ -0,0 +1,40 @@
+package ru.practicum.ewm.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "db.legacy-schema.reset", matchIfMissing = true)
+public class LegacySchemaReset implements FlywayMigrationStrategy {
+    private static final List<String> LEGACY_TABLES = List.of(
+            "comments",
+            "requests",
+            "compilation_event",
+            "compilations",
+            "events",
+            "locations",
+            "categories",
+            "users");
+
+    @Override
+    public void migrate(Flyway flyway) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        if (!exists(jdbcTemplate, flyway.getConfiguration().getTable()) && exists(jdbcTemplate, "users")) {
+            log.warn("Found tables created by schema.sql without Flyway history, dropping {}", LEGACY_TABLES);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + String.join(", ", LEGACY_TABLES) + " CASCADE");
+        }
+        flyway.migrate();
+    }
+
+    private boolean exists(JdbcTemplate jdbcTemplate, String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                Boolean.class, table));
+    }
+}
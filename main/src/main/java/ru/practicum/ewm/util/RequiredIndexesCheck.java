@@ -0,0 +1,52 @@
+package ru.practicum.ewm.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "db.index-check.enabled", matchIfMissing = true)
+public class RequiredIndexesCheck implements InitializingBean {
+    private static final List<String> REQUIRED_INDEXES = List.of(
+            "events_views_idx",
+            "events_event_date_idx",
+            "events_search_idx",
+            "events_annotation_trgm_idx",
+            "events_description_trgm_idx",
+            "events_initiator_idx",
+            "events_state_event_date_idx",
+            "events_category_idx",
+            "events_location_idx",
+            "requests_requester_event_uq",
+            "requests_event_status_idx",
+            "requests_event_pending_idx",
+            "compilations_pinned_idx",
+            "compilation_event_event_idx",
+            "comments_event_created_idx",
+            "comments_author_idx",
+            "locations_lat_lon_idx");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        List<String> missing = REQUIRED_INDEXES.stream()
+                .filter(index -> !existing.contains(index))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + missing);
+        }
+        log.info("All {} required database indexes are present", REQUIRED_INDEXES.size());
+    }
+}
@@ -0,0 +1,90 @@
+create extension if not exists pg_trgm;
+
+create table users(
+    id BIGINT generated by default as identity primary key,
+    name VARCHAR(250) not null,
+    email VARCHAR(254) unique not null
+);
+
+create table categories(
+    id BIGINT generated by default as identity primary key,
+    name VARCHAR(50) unique not null
+);
+
+create table locations(
+    id BIGINT generated by default as identity primary key,
+    lat FLOAT,
+    lon FLOAT
+);
+
+create table events(
+    id BIGINT generated by default as identity primary key,
+    annotation VARCHAR(2000) unique not null,
+    category_id BIGINT not null references categories(id),
+    created_on TIMESTAMP,
+    description VARCHAR(7000) not null,
+    event_date TIMESTAMP not null,
+    initiator_id BIGINT references users(id),
+    location_id BIGINT not null references locations(id),
+    paid BOOLEAN,
+    participant_limit INTEGER,
+    published_on TIMESTAMP,
+    request_moderation BOOLEAN,
+    state VARCHAR(10),
+    title VARCHAR(120) not null,
+    views BIGINT not null default 0,
+    confirmed_requests BIGINT not null default 0
+);
+
+create index events_views_idx on events (views desc, id);
+create index events_event_date_idx on events (event_date, id);
+
+create or replace function event_search_vector(title text, annotation text, description text) returns tsvector as $$
+    select setweight(to_tsvector('russian', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('russian', coalesce(annotation, '')), 'B')
+        || setweight(to_tsvector('russian', coalesce(description, '')), 'C')
+$$ language sql immutable;
+
+create or replace function event_search_matches(title text, annotation text, description text, query text)
+    returns boolean as $$
+    select event_search_vector(title, annotation, description) @@ websearch_to_tsquery('russian', query)
+$$ language sql immutable;
+
+create or replace function event_search_rank(title text, annotation text, description text, query text)
+    returns real as $$
+    select ts_rank(event_search_vector(title, annotation, description), websearch_to_tsquery('russian', query))
+$$ language sql immutable;
+
+create index events_search_idx on events
+    using gin (event_search_vector(title, annotation, description));
+create index events_annotation_trgm_idx on events using gin (lower(annotation) gin_trgm_ops);
+create index events_description_trgm_idx on events using gin (lower(description) gin_trgm_ops);
+
+create table compilations(
+    id BIGINT generated by default as identity primary key,
+    pinned BOOLEAN,
+    title VARCHAR(50) not null unique
+);
+
+create table compilation_event(
+    compilation_id BIGINT references compilations(id),
+    event_id BIGINT references events(id),
+    primary key (compilation_id, event_id)
+);
+
+create table requests(
+    id BIGINT generated by default as identity primary key,
+    created TIMESTAMP,
+    event_id BIGINT references events(id),
+    requester_id BIGINT references users(id),
+    status VARCHAR(50)
+);
+
+create table comments (
+    id BIGINT generated by default as identity primary key,
+    text VARCHAR(2000) not null,
+    author_id BIGINT references users(id) not null,
+    event_id BIGINT references events(id) not null,
+    created TIMESTAMP not null,
+    edited TIMESTAMP
+);
@@ -0,0 +1,16 @@
+alter table requests add constraint requests_requester_event_uq unique (requester_id, event_id);
+create index requests_event_status_idx on requests (event_id, status);
+create index requests_event_pending_idx on requests (event_id, id) where status = 'PENDING';
+
+create index events_initiator_idx on events (initiator_id, id);
+create index events_state_event_date_idx on events (state, event_date, id);
+create index events_category_idx on events (category_id);
+create index events_location_idx on events (location_id);
+
+create index compilations_pinned_idx on compilations (pinned, id);
+create index compilation_event_event_idx on compilation_event (event_id);
+
+create index comments_event_idx on comments (event_id, id);
+create index comments_author_idx on comments (author_id, id);
+
+create index locations_lat_lon_idx on locations (lat, lon);
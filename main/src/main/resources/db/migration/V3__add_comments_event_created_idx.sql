@@ -0,0 +1,2 @@
+create index comments_event_created_idx on comments (event_id, created, id);
+drop index comments_event_idx;
@@ -0,0 +1,8 @@
+create table event_comment_stats(
+    event_id BIGINT primary key references events(id) on delete cascade,
+    comments BIGINT not null default 0,
+    last_comment_on TIMESTAMP
+);
+
+insert into event_comment_stats (event_id, comments, last_comment_on)
+select event_id, count(*), max(created) from comments group by event_id;
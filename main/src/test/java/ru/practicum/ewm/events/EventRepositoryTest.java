@@ -0,0 +1,95 @@
+package ru.practicum.ewm.events;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.ewm.categories.Category;
+import ru.practicum.ewm.events.enums.State;
+import ru.practicum.ewm.events.enums.TextSearchMode;
+import ru.practicum.ewm.locations.Location;
+import ru.practicum.ewm.users.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EventRepositoryTest {
+    private static final int EVENTS = 5;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User initiator = entityManager.persist(new User("initiator", "initiator@example.com"));
+        Category category = entityManager.persist(new Category("category"));
+        for (int i = 0; i < EVENTS; i++) {
+            Location location = entityManager.persist(new Location(55.75f + i, 37.62f));
+            entityManager.persist(Event.builder()
+                    .annotation("annotation " + i)
+                    .category(category)
+                    .createdOn(NOW)
+                    .description("description " + i)
+                    .eventDate(NOW.plusDays(i + 1))
+                    .initiator(initiator)
+                    .location(location)
+                    .paid(false)
+                    .participantLimit(0)
+                    .publishedOn(NOW)
+                    .requestModeration(false)
+                    .state(State.PUBLISHED)
+                    .title("title " + i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsPageWithLocationsInOneStatement() {
+        List<Event> events = eventRepository.findAll(
+                EventSpecificationBuilder.build(null, TextSearchMode.SUBSTRING, null, null, NOW, null, null),
+                PageRequest.of(0, 10, Sort.by(Sort.Order.asc("eventDate"), Sort.Order.asc("id"))));
+
+        assertThat(events).hasSize(EVENTS);
+        for (Event event : events) {
+            assertThat(event.getLocation().getLat()).isNotNull();
+            assertThat(event.getCategory().getId()).isNotNull();
+            assertThat(event.getInitiator().getId()).isNotNull();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllByAdminParamsLoadsPageWithLocationsInOneStatement() {
+        List<Event> events = eventRepository.findAll(
+                EventSpecificationBuilder.buildByAdminParams(null, List.of(State.PUBLISHED.name()), null, null, null),
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(events).hasSize(EVENTS);
+        events.forEach(event -> assertThat(event.getLocation().getLon()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
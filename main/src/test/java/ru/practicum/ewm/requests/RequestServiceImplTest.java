@@ -0,0 +1,109 @@
+package ru.practicum.ewm.requests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.ewm.compilations.PinnedCompilationsCache;
+import ru.practicum.ewm.events.Event;
+import ru.practicum.ewm.events.EventRepository;
+import ru.practicum.ewm.events.SeatReservation;
+import ru.practicum.ewm.requests.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.ewm.requests.dto.EventRequestStatusUpdateResult;
+import ru.practicum.ewm.requests.enums.RequestStatus;
+import ru.practicum.ewm.users.User;
+import ru.practicum.ewm.users.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestServiceImplTest {
+    private static final long USER_ID = 1L;
+    private static final long EVENT_ID = 10L;
+    private static final List<Long> REQUEST_IDS = List.of(101L, 102L, 103L);
+
+    @Mock
+    RequestRepository requestRepository;
+    @Mock
+    EventRepository eventRepository;
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    PinnedCompilationsCache pinnedCompilationsCache;
+    @InjectMocks
+    RequestServiceImpl requestService;
+
+    User initiator;
+    Event event;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(requestService, "rejectPendingOnLimit", true);
+        initiator = new User(USER_ID, "initiator", "initiator@example.com");
+        event = Event.builder()
+                .id(EVENT_ID)
+                .initiator(initiator)
+                .participantLimit(5)
+                .confirmedRequests(2L)
+                .build();
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(initiator));
+        when(eventRepository.findByIdAndInitiatorId(EVENT_ID, USER_ID)).thenReturn(Optional.of(event));
+    }
+
+    @Test
+    void partialConfirmReturnsSurplusSeatsAndKeepsOtherPendingRequests() {
+        when(eventRepository.reserveParticipants(EVENT_ID, REQUEST_IDS.size())).thenReturn(reservation(3, 5));
+        when(requestRepository.confirmPending(EVENT_ID, REQUEST_IDS, 3)).thenReturn(List.of(request(101L)));
+
+        EventRequestStatusUpdateResult result = requestService.updateRequestsStatus(USER_ID, EVENT_ID,
+                new EventRequestStatusUpdateRequest(REQUEST_IDS, RequestStatus.CONFIRMED));
+
+        assertThat(result.getConfirmedRequests()).hasSize(1);
+        verify(eventRepository).addConfirmedRequests(EVENT_ID, -2);
+        verify(requestRepository, never()).rejectAllPending(anyLong());
+    }
+
+    @Test
+    void fullConfirmRejectsOtherPendingRequestsWhenLimitIsReached() {
+        when(eventRepository.reserveParticipants(EVENT_ID, REQUEST_IDS.size())).thenReturn(reservation(3, 5));
+        when(requestRepository.confirmPending(EVENT_ID, REQUEST_IDS, 3))
+                .thenReturn(List.of(request(101L), request(102L), request(103L)));
+
+        EventRequestStatusUpdateResult result = requestService.updateRequestsStatus(USER_ID, EVENT_ID,
+                new EventRequestStatusUpdateRequest(REQUEST_IDS, RequestStatus.CONFIRMED));
+
+        assertThat(result.getConfirmedRequests()).hasSize(3);
+        verify(eventRepository, never()).addConfirmedRequests(anyLong(), anyLong());
+        verify(requestRepository).rejectAllPending(EVENT_ID);
+    }
+
+    private Request request(Long id) {
+        return new Request(id, LocalDateTime.now(), event, new User(id, "requester", id + "@example.com"),
+                RequestStatus.CONFIRMED);
+    }
+
+    private SeatReservation reservation(long granted, long confirmedRequests) {
+        return new SeatReservation() {
+            @Override
+            public Long getGranted() {
+                return granted;
+            }
+
+            @Override
+            public Long getConfirmedRequests() {
+                return confirmedRequests;
+            }
+        };
+    }
+}
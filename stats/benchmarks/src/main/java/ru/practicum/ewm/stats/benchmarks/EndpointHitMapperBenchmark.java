@@ -0,0 +1,40 @@
+package ru.practicum.ewm.stats.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.ewm.stats.dto.EndpointHitDto;
+import ru.practicum.ewm.stats.server.model.EndpointHit;
+import ru.practicum.ewm.stats.server.model.EndpointHitMapper;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointHitMapperBenchmark {
+    private final EndpointHitDto dto = new EndpointHitDto("ewm-main-service", "/events/42", "192.168.0.1",
+            LocalDateTime.of(2024, 1, 15, 10, 17, 31));
+    private final EndpointHit hit = new EndpointHit(1L, "ewm-main-service", "/events/42", "192.168.0.1",
+            LocalDateTime.of(2024, 1, 15, 10, 17, 31));
+
+    @Benchmark
+    public EndpointHit toHit() {
+        return EndpointHitMapper.toHit(dto);
+    }
+
+    @Benchmark
+    public EndpointHitDto toEndpointHitDto() {
+        return EndpointHitMapper.toEndpointHitDto(hit);
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.ewm.stats.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.stats.dto.ViewStats;
+import ru.practicum.ewm.stats.server.StatsRepository;
+import ru.practicum.ewm.stats.server.StatsServer;
+import ru.practicum.ewm.stats.server.StatsService;
+import ru.practicum.ewm.stats.server.partition.HitPartition;
+import ru.practicum.ewm.stats.server.partition.HitPartitionRepository;
+import ru.practicum.ewm.stats.server.partition.PartitionInterval;
+import ru.practicum.ewm.stats.server.rollup.HitRollupRepository;
+import ru.practicum.ewm.stats.server.rollup.HitRollupService;
+import ru.practicum.ewm.stats.server.rollup.RollupWindow;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StatsServiceBenchmark {
+    private static final LocalDateTime DATA_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime DATA_END = DATA_START.plusYears(1);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 10, 17, 31);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 10, 20, 5, 3, 12);
+    private static final int URI_COUNT = 1000;
+    private static final int INSERT_CHUNK = 1_000_000;
+    private static final int ROLLUP_BATCH_SIZE = 50_000;
+
+    @Param({"1000000", "10000000", "100000000"})
+    private int rows;
+
+    @Param({"ALL", "UNIQUE", "UNIQUE_APPROXIMATE"})
+    private StatsQuery query;
+
+    @Param({"false", "true"})
+    private boolean withUris;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private StatsService statsService;
+    private StatsRepository statsRepository;
+    private HitRollupRepository hitRollupRepository;
+    private RollupWindow window;
+    private List<String> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(StatsServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--stats.rollup.enabled=false",
+                        "--stats.rollup.batch-size=" + ROLLUP_BATCH_SIZE,
+                        "--logging.level.root=WARN");
+        statsService = context.getBean(StatsService.class);
+        statsRepository = context.getBean(StatsRepository.class);
+        hitRollupRepository = context.getBean(HitRollupRepository.class);
+        window = RollupWindow.of(START, END);
+        uris = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> "/events/" + i * (URI_COUNT / 10))
+                .toList();
+        loadHits(context.getBean(JdbcTemplate.class));
+        HitRollupService hitRollupService = context.getBean(HitRollupService.class);
+        int rolledUp;
+        do {
+            rolledUp = hitRollupService.rollUp();
+        } while (rolledUp == ROLLUP_BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<ViewStats> getStats() {
+        return statsService.getStats(START, END, withUris ? uris : null, query != StatsQuery.ALL,
+                query == StatsQuery.UNIQUE_APPROXIMATE);
+    }
+
+    @Benchmark
+    public void rawQuery(Blackhole blackhole) {
+        List<String> queryUris = withUris ? uris : null;
+        switch (query) {
+            case ALL -> blackhole.consume(withUris
+                    ? statsRepository.findAllHitsWithUris(uris, START, END)
+                    : statsRepository.findAllHitsWithoutUris(START, END));
+            case UNIQUE -> blackhole.consume(withUris
+                    ? statsRepository.findHitsWithUniqueIpWithUris(uris, START, END)
+                    : statsRepository.findHitsWithUniqueIpWithoutUris(START, END));
+            case UNIQUE_APPROXIMATE -> {
+                blackhole.consume(hitRollupRepository.findRolledUpSketches(window, queryUris));
+                blackhole.consume(hitRollupRepository.findRawVisitorsOutside(window, START, END, queryUris));
+            }
+        }
+    }
+
+    private void loadHits(JdbcTemplate jdbcTemplate) {
+        HitPartitionRepository hitPartitionRepository = context.getBean(HitPartitionRepository.class);
+        for (LocalDateTime month = DATA_START; month.isBefore(DATA_END); month = month.plusMonths(1)) {
+            hitPartitionRepository.createPartition(HitPartition.of(PartitionInterval.MONTH, month));
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.createStatement().execute("SELECT setseed(0.42)");
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO hits (app, uri, ip, timestamp) " +
+                    "SELECT 'ewm-main-service', " +
+                    "'/events/' || (1 + floor(random() * ?)::int), " +
+                    "'10.' || floor(random() * 4)::int || '.' || floor(random() * 256)::int || '.' || " +
+                    "floor(random() * 256)::int, " +
+                    "CAST(? AS timestamp) + random() * ? * INTERVAL '1 second' " +
+                    "FROM generate_series(1, ?)")) {
+                for (int loaded = 0; loaded < rows; loaded += INSERT_CHUNK) {
+                    statement.setInt(1, URI_COUNT);
+                    statement.setTimestamp(2, Timestamp.valueOf(DATA_START));
+                    statement.setLong(3, Duration.between(DATA_START, DATA_END).toSeconds());
+                    statement.setInt(4, Math.min(INSERT_CHUNK, rows - loaded));
+                    statement.executeUpdate();
+                }
+            }
+            return null;
+        });
+        jdbcTemplate.execute("VACUUM ANALYZE hits");
+    }
+
+    public enum StatsQuery {
+        ALL,
+        UNIQUE,
+        UNIQUE_APPROXIMATE
+    }
+}
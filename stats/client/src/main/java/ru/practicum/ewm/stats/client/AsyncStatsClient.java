@@ -0,0 +1,184 @@
+package ru.practicum.ewm.stats.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.ewm.stats.dto.EndpointHitDto;
+import ru.practicum.ewm.stats.dto.ViewStats;
+import ru.practicum.ewm.stats.util.Constants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class AsyncStatsClient implements InitializingBean, DisposableBean, MeterBinder {
+    private static final TypeReference<List<ViewStats>> VIEW_STATS_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper;
+    private final StatsClient statsClient;
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT);
+    @Value("${client.url}")
+    private String serverUrl;
+    @Value("${client.http.max-connections:50}")
+    private int maxConnections;
+    @Value("${client.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+    @Value("${client.http.read-timeout-ms:3000}")
+    private long readTimeoutMs;
+    @Value("${client.http.pool-timeout-ms:500}")
+    private long poolTimeoutMs;
+    @Value("${client.http.keep-alive-ms:15000}")
+    private long keepAliveMs;
+    private PoolingAsyncClientConnectionManager connectionManager;
+    private CloseableHttpAsyncClient httpClient;
+    private CircuitBreaker circuitBreaker;
+
+    public AsyncStatsClient(ObjectMapper mapper, StatsClient statsClient) {
+        this.mapper = mapper;
+        this.statsClient = statsClient;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+        httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+        httpClient.start();
+        circuitBreaker = statsClient.getCircuitBreaker();
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "stats-client-async").bindTo(registry);
+    }
+
+    public CompletableFuture<Void> saveHit(EndpointHitDto hit) {
+        SimpleHttpRequest request = SimpleRequestBuilder.post(serverUrl + "/hit")
+                .setBody(write(hit), ContentType.APPLICATION_JSON)
+                .build();
+        return send(request).thenApply(response -> null);
+    }
+
+    public CompletableFuture<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                       boolean unique, boolean approximate) {
+        UriComponentsBuilder url = UriComponentsBuilder.fromHttpUrl(serverUrl)
+                .path("/stats")
+                .queryParam("start", start.format(formatter))
+                .queryParam("end", end.format(formatter))
+                .queryParam("unique", unique);
+        if (uris != null) {
+            url.queryParam("uris", uris.toArray());
+        }
+        if (approximate) {
+            url.queryParam("approximate", true);
+        }
+        SimpleHttpRequest request = SimpleRequestBuilder.get(url.encode().build().toUri())
+                .addHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType())
+                .build();
+        return send(request).thenApply(this::readViewStats);
+    }
+
+    private CompletableFuture<SimpleHttpResponse> send(SimpleHttpRequest request) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new StatsUnavailableException("Stats server circuit is open"));
+        }
+        CompletableFuture<SimpleHttpResponse> result = new CompletableFuture<>();
+        httpClient.execute(SimpleRequestProducer.create(request), SimpleResponseConsumer.create(),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        if (response.getCode() >= 500) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                        if (response.getCode() >= 300) {
+                            result.completeExceptionally(new StatsUnavailableException(
+                                    "Stats server responded with status " + response.getCode()));
+                        } else {
+                            result.complete(response);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        circuitBreaker.onFailure();
+                        result.completeExceptionally(new StatsUnavailableException("Stats server is unavailable", e));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        circuitBreaker.onFailure();
+                        result.cancel(false);
+                    }
+                });
+        return result;
+    }
+
+    private List<ViewStats> readViewStats(SimpleHttpResponse response) {
+        try {
+            return mapper.readValue(response.getBodyBytes(), VIEW_STATS_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(EndpointHitDto hit) {
+        try {
+            return mapper.writeValueAsBytes(hit);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
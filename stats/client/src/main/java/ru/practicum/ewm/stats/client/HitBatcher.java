@@ -0,0 +1,161 @@
+package ru.practicum.ewm.stats.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.stats.dto.EndpointHitDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HitBatcher {
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int batchSize;
+    private final HitOverflowPolicy overflowPolicy;
+    private final long offerTimeoutMs;
+    private final Consumer<List<EndpointHitDto>> sender;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public HitBatcher(int capacity, int batchSize, HitOverflowPolicy overflowPolicy, long offerTimeoutMs,
+                      boolean virtualThreads, Consumer<List<EndpointHitDto>> sender) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.sender = sender;
+        this.executor = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("stats-hit-batcher").factory()
+                : Thread.ofPlatform().name("stats-hit-batcher").daemon().factory());
+    }
+
+    public void start(long flushIntervalMs) {
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void submit(EndpointHitDto hit) {
+        if (executor.isShutdown()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!enqueue(hit)) {
+            return;
+        }
+        queued.incrementAndGet();
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                if (queue.remove(hit)) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.execute(this::flush);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Stats hit batcher did not stop in time, {} hits left unsent", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void bindTo(MeterRegistry registry, String prefix) {
+        FunctionCounter.builder(prefix + ".queued", this, HitBatcher::getQueued)
+                .register(registry);
+        FunctionCounter.builder(prefix + ".sent", this, HitBatcher::getSent)
+                .register(registry);
+        FunctionCounter.builder(prefix + ".dropped", this, HitBatcher::getDropped)
+                .register(registry);
+        Gauge.builder(prefix + ".pending", this, HitBatcher::getPending)
+                .register(registry);
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    private boolean enqueue(EndpointHitDto hit) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!queue.offer(hit)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                return true;
+            case BLOCK:
+                try {
+                    if (queue.offer(hit, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                dropped.incrementAndGet();
+                return false;
+            case CALLER_RUNS:
+                if (queue.offer(hit)) {
+                    return true;
+                }
+                send(List.of(hit));
+                return false;
+            default:
+                if (queue.offer(hit)) {
+                    return true;
+                }
+                dropped.incrementAndGet();
+                return false;
+        }
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void send(List<EndpointHitDto> batch) {
+        try {
+            sender.accept(batch);
+            sent.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Failed to send {} hits to stats server: {}", batch.size(), e.getMessage());
+        }
+    }
+}
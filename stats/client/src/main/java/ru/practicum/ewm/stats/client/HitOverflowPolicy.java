@@ -0,0 +1,8 @@
+package ru.practicum.ewm.stats.client;
+
+public enum HitOverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    BLOCK,
+    CALLER_RUNS
+}
@@ -1,69 +1,147 @@
 package ru.practicum.ewm.stats.client;
 
-import org.apache.hc.client5.http.classic.HttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.ewm.stats.dto.EndpointHitDto;
-import ru.practicum.ewm.stats.util.Constants;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
-public class StatsClient {
-    private final RestTemplate restTemplate;
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT);
+public class StatsClient implements InitializingBean, DisposableBean, MeterBinder {
     @Value("${client.url}")
     private String serverUrl;
+    @Value("${client.hits.async:false}")
+    private boolean asyncHits;
+    @Value("${client.hits.queue-capacity:10000}")
+    private int hitQueueCapacity;
+    @Value("${client.hits.batch-size:500}")
+    private int hitBatchSize;
+    @Value("${client.hits.flush-interval-ms:1000}")
+    private long hitFlushIntervalMs;
+    @Value("${client.hits.overflow-policy:DROP_NEWEST}")
+    private HitOverflowPolicy hitOverflowPolicy;
+    @Value("${client.hits.offer-timeout-ms:50}")
+    private long hitOfferTimeoutMs;
+    @Value("${client.http.max-connections:50}")
+    private int maxConnections;
+    @Value("${client.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+    @Value("${client.http.read-timeout-ms:3000}")
+    private long readTimeoutMs;
+    @Value("${client.http.pool-timeout-ms:500}")
+    private long poolTimeoutMs;
+    @Value("${client.http.keep-alive-ms:15000}")
+    private long keepAliveMs;
+    @Value("${client.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+    @Value("${client.breaker.open-ms:10000}")
+    private long breakerOpenMs;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private CircuitBreaker circuitBreaker;
+    private HitBatcher hitBatcher;
 
-    public StatsClient() {
-        this.restTemplate = new RestTemplate();
-        HttpClient httpClient = HttpClientBuilder.create().build();
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        restTemplate.setRequestFactory(requestFactory);
+    @Override
+    public void afterPropertiesSet() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMs);
+        if (asyncHits) {
+            hitBatcher = new HitBatcher(hitQueueCapacity, hitBatchSize, hitOverflowPolicy, hitOfferTimeoutMs,
+                    virtualThreads, this::sendHits);
+            hitBatcher.start(hitFlushIntervalMs);
+        }
     }
 
-    public ResponseEntity<Object> saveHit(EndpointHitDto hit) {
-        ResponseEntity<Object> response;
-        try {
-            response = restTemplate.postForEntity(serverUrl + "/hit", hit, Object.class);
-        } catch (HttpStatusCodeException exception) {
-            return ResponseEntity.status(exception.getStatusCode()).body(exception.getResponseBodyAsByteArray());
+    @Override
+    public void destroy() {
+        if (hitBatcher != null) {
+            hitBatcher.shutdown();
         }
+        httpClient.close(CloseMode.GRACEFUL);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "stats-client").bindTo(registry);
+        circuitBreaker.bindTo(registry, "stats.client");
+        if (hitBatcher != null) {
+            hitBatcher.bindTo(registry, "stats.client.hits");
         }
+    }
 
-        return responseBuilder.build();
+    public ResponseEntity<Object> saveHit(EndpointHitDto hit) {
+        if (hitBatcher != null) {
+            hitBatcher.submit(hit);
+            return ResponseEntity.accepted().build();
+        }
+        return execute(() -> restTemplate.postForEntity(serverUrl + "/hit", hit, Object.class));
     }
 
-    public ResponseEntity<Object> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
 
-        StringBuilder url = new StringBuilder(serverUrl + "/stats?");
-        for (String uri : uris) {
-            url.append("&uris=").append(uri);
+    private ResponseEntity<Object> execute(Supplier<ResponseEntity<Object>> request) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new StatsUnavailableException("Stats server circuit is open");
         }
-        url.append("&unique=").append(unique);
-        url.append("&start=").append(start.format(formatter));
-        url.append("&end=").append(end.format(formatter));
-
         ResponseEntity<Object> response;
-
         try {
-            response = restTemplate.exchange(url.toString(), HttpMethod.GET, null, Object.class);
+            response = request.get();
         } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            throw new StatsUnavailableException("Stats server is unavailable", e);
         }
+        circuitBreaker.onSuccess();
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
@@ -73,4 +151,12 @@ public class StatsClient {
 
         return responseBuilder.build();
     }
+
+    private void sendHits(List<EndpointHitDto> hits) {
+        ResponseEntity<Object> response = execute(() -> restTemplate.postForEntity(serverUrl + "/hit/batch", hits,
+                Object.class));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new StatsUnavailableException("Stats server rejected hits with status " + response.getStatusCode());
+        }
+    }
 }
@@ -1,16 +1,33 @@
 package ru.practicum.ewm.stats.server;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.stats.dto.EndpointHitDto;
 import ru.practicum.ewm.stats.dto.ViewStats;
+import ru.practicum.ewm.stats.server.model.EndpointHit;
 import ru.practicum.ewm.stats.server.model.EndpointHitMapper;
+import ru.practicum.ewm.stats.server.rollup.HitRollupRepository;
+import ru.practicum.ewm.stats.server.rollup.HitRollupService;
+import ru.practicum.ewm.stats.server.rollup.HyperLogLog;
+import ru.practicum.ewm.stats.server.rollup.Rollup;
+import ru.practicum.ewm.stats.server.rollup.RollupWindow;
 
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -18,32 +35,108 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StatsService {
     private final StatsRepository statsRepository;
+    private final HitJdbcRepository hitJdbcRepository;
+    private final HitRollupRepository hitRollupRepository;
+    private final HitRollupService hitRollupService;
+    private final Validator validator;
+    @Value("${stats.ingest.batch-size:1000}")
+    private int ingestBatchSize;
 
     public EndpointHitDto saveHit(EndpointHitDto hit) {
         log.debug("Save hit: {}", hit);
         return EndpointHitMapper.toEndpointHitDto(statsRepository.save(EndpointHitMapper.toHit(hit)));
     }
 
-    @Transactional(readOnly = true)
-    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    public long saveHits(Iterator<EndpointHitDto> hits) {
+        long saved = 0;
+        List<EndpointHitDto> batch = new ArrayList<>(ingestBatchSize);
+        while (hits.hasNext()) {
+            batch.add(validate(hits.next()));
+            if (batch.size() == ingestBatchSize) {
+                saved += hitJdbcRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saved += hitJdbcRepository.saveAll(batch);
+        }
+        log.debug("Saved {} hits in batch", saved);
+        return saved;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                    Boolean approximate) {
         if (start.isAfter(end)) {
             log.debug("Wrong timestamp: start must be before end");
             throw new DateTimeException("Wrong timestamp: start must be before end");
         }
+        RollupWindow window = RollupWindow.of(start, end);
         if (unique) {
+            if (approximate && !window.isEmpty()) {
+                log.debug("Estimate unique from rollup sketches, window {}", window);
+                return estimateUnique(window, start, end, uris);
+            }
             if (uris != null) {
                 log.debug("Search unique URIs.");
                 return statsRepository.findHitsWithUniqueIpWithUris(uris, start, end);
             }
             log.debug("Search unique, no URIs.");
             return statsRepository.findHitsWithUniqueIpWithoutUris(start, end);
-        } else {
-            if (uris != null) {
-                log.debug("Search all URIs.");
-                return statsRepository.findAllHitsWithUris(uris, start, end);
-            }
-            log.debug("Search all, no URIs.");
-            return statsRepository.findAllHitsWithoutUris(start, end);
         }
+        if (!window.isEmpty()) {
+            log.debug("Search all from rollups, window {}", window);
+            return merge(hitRollupRepository.countRolledUpHits(window, uris),
+                    hitRollupRepository.countRawHitsOutside(window, start, end, uris));
+        }
+        if (uris != null) {
+            log.debug("Search all URIs.");
+            return statsRepository.findAllHitsWithUris(uris, start, end);
+        }
+        log.debug("Search all, no URIs.");
+        return statsRepository.findAllHitsWithoutUris(start, end);
+    }
+
+    private List<ViewStats> estimateUnique(RollupWindow window, LocalDateTime start, LocalDateTime end,
+                                           List<String> uris) {
+        Map<List<String>, HyperLogLog> sketches = new LinkedHashMap<>();
+        for (Rollup rollup : hitRollupRepository.findRolledUpSketches(window, uris)) {
+            sketches.merge(List.of(rollup.getKey().getApp(), rollup.getKey().getUri()), rollup.getIps(), (a, b) -> {
+                a.merge(b);
+                return a;
+            });
+        }
+        for (EndpointHit hit : hitRollupRepository.findRawVisitorsOutside(window, start, end, uris)) {
+            sketches.computeIfAbsent(List.of(hit.getApp(), hit.getUri()), key -> hitRollupService.newSketch())
+                    .add(hit.getIp());
+        }
+        List<ViewStats> result = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> result.add(new ViewStats(key.get(0), key.get(1), sketch.estimate())));
+        result.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return result;
+    }
+
+    private List<ViewStats> merge(List<ViewStats> rolledUp, List<ViewStats> raw) {
+        Map<List<String>, ViewStats> stats = new LinkedHashMap<>();
+        for (ViewStats viewStats : rolledUp) {
+            stats.put(List.of(viewStats.getApp(), viewStats.getUri()), viewStats);
+        }
+        for (ViewStats viewStats : raw) {
+            stats.merge(List.of(viewStats.getApp(), viewStats.getUri()), viewStats, (a, b) -> {
+                a.setHits(a.getHits() + b.getHits());
+                return a;
+            });
+        }
+        List<ViewStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return result;
+    }
+
+    private EndpointHitDto validate(EndpointHitDto hit) {
+        Set<ConstraintViolation<EndpointHitDto>> violations = validator.validate(hit);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return hit;
     }
 }
@@ -1,7 +1,12 @@
 package ru.practicum.ewm.stats.server.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -23,9 +28,10 @@ public class ErrorHandler {
         return buffer.toString();
     }
 
-    @ExceptionHandler({MissingServletRequestParameterException.class, DateTimeException.class})
+    @ExceptionHandler({MissingServletRequestParameterException.class, DateTimeException.class,
+            ConstraintViolationException.class, JsonProcessingException.class, RuntimeJsonMappingException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiError badRequest(RuntimeException e) {
+    public ApiError badRequest(Exception e) {
         log.error(stackTraceToString(e));
         return ApiError.builder()
                 .message(e.getMessage())
@@ -35,6 +41,18 @@ public class ErrorHandler {
                 .build();
     }
 
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiError serviceUnavailable(RuntimeException e) {
+        log.warn("Database connection unavailable: {}", e.getMessage());
+        return ApiError.builder()
+                .message(e.getMessage())
+                .reason("Database is overloaded.")
+                .status("SERVICE_UNAVAILABLE")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleInternalServerError(final Exception exception) {
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.stats.server.partition;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Value
+public class HitPartition {
+    public static final String PREFIX = "hits_p";
+    private static final int DAY_SUFFIX_LENGTH = 8;
+
+    String name;
+    LocalDateTime from;
+    LocalDateTime to;
+
+    public static HitPartition of(PartitionInterval interval, LocalDateTime time) {
+        LocalDateTime from = interval.floor(time);
+        return new HitPartition(PREFIX + interval.suffix(from), from, interval.plus(from, 1));
+    }
+
+    public static HitPartition parse(String name) {
+        String suffix = name.substring(PREFIX.length());
+        if (suffix.length() == DAY_SUFFIX_LENGTH) {
+            return of(PartitionInterval.DAY, LocalDate.parse(suffix, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay());
+        }
+        return of(PartitionInterval.MONTH,
+                LocalDate.parse(suffix + "01", DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay());
+    }
+
+    public boolean overlaps(HitPartition other) {
+        return from.isBefore(other.to) && other.from.isBefore(to);
+    }
+}
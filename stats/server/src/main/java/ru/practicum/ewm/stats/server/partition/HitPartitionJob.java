@@ -0,0 +1,37 @@
+package ru.practicum.ewm.stats.server.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(value = "stats.partitions.enabled", matchIfMissing = true)
+public class HitPartitionJob implements InitializingBean {
+    private final HitPartitionService hitPartitionService;
+
+    @Override
+    public void afterPropertiesSet() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${stats.partitions.cron:0 0 * * * *}")
+    public void maintain() {
+        try {
+            if (!hitPartitionService.isPartitioned()) {
+                log.warn("Table hits is not partitioned, skipping partition maintenance");
+                return;
+            }
+            hitPartitionService.createPartitions();
+            hitPartitionService.dropExpiredPartitions();
+        } catch (RuntimeException e) {
+            log.warn("Hits partition maintenance failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.ewm.stats.server.partition;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+    private static final long PARTITION_LOCK_KEY = 0x4849545350L;
+    private static final String DEFAULT_PARTITION = "hits_default";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)",
+                Boolean.class, PARTITION_LOCK_KEY));
+    }
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table " +
+                "WHERE partrelid = to_regclass('hits'))", Boolean.class));
+    }
+
+    public void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF hits DEFAULT");
+    }
+
+    public List<HitPartition> findPartitions() {
+        return jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass('hits') AND c.relname ~ ? ORDER BY c.relname",
+                (rs, rowNum) -> HitPartition.parse(rs.getString("relname")),
+                "^" + HitPartition.PREFIX + "[0-9]{6}([0-9]{2})?$");
+    }
+
+    public List<LocalDateTime> findDefaultPartitionTimestamps(PartitionInterval interval) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT date_trunc(?, timestamp) FROM " + DEFAULT_PARTITION,
+                Timestamp.class, interval.name().toLowerCase()).stream()
+                .map(Timestamp::toLocalDateTime)
+                .toList();
+    }
+
+    public void createPartition(HitPartition partition) {
+        String from = Timestamp.valueOf(partition.getFrom()).toString();
+        String to = Timestamp.valueOf(partition.getTo()).toString();
+        Boolean hasDefaultRows = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ?)", Boolean.class,
+                Timestamp.valueOf(partition.getFrom()), Timestamp.valueOf(partition.getTo()));
+        if (!Boolean.TRUE.equals(hasDefaultRows)) {
+            jdbcTemplate.execute("CREATE TABLE " + partition.getName() + " PARTITION OF hits " +
+                    "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + partition.getName() +
+                " (LIKE hits INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING *) " +
+                        "INSERT INTO " + partition.getName() + " SELECT * FROM moved",
+                Timestamp.valueOf(partition.getFrom()), Timestamp.valueOf(partition.getTo()));
+        jdbcTemplate.execute("ALTER TABLE hits ATTACH PARTITION " + partition.getName() +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    public boolean hasPendingRollups(HitPartition partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " +
+                partition.getName() + " WHERE NOT rolled_up)", Boolean.class));
+    }
+
+    public void dropPartition(HitPartition partition) {
+        jdbcTemplate.execute("ALTER TABLE hits DETACH PARTITION " + partition.getName());
+        jdbcTemplate.execute("DROP TABLE " + partition.getName());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.ewm.stats.server.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.stats.server.rollup.HitRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class HitPartitionService {
+    private final HitPartitionRepository hitPartitionRepository;
+    private final HitRollupRepository hitRollupRepository;
+    @Value("${stats.partitions.interval:MONTH}")
+    private PartitionInterval interval;
+    @Value("${stats.partitions.premake:2}")
+    private int premake;
+    @Value("${stats.partitions.retention:0}")
+    private int retention;
+
+    @Transactional(readOnly = true)
+    public boolean isPartitioned() {
+        return hitPartitionRepository.isPartitioned();
+    }
+
+    public int createPartitions() {
+        if (!hitPartitionRepository.tryLock()) {
+            return 0;
+        }
+        hitPartitionRepository.createDefaultPartition();
+        List<HitPartition> existing = hitPartitionRepository.findPartitions();
+        Set<LocalDateTime> periods = new TreeSet<>(hitPartitionRepository.findDefaultPartitionTimestamps(interval));
+        LocalDateTime current = interval.floor(LocalDateTime.now());
+        for (int i = 0; i <= premake; i++) {
+            periods.add(interval.plus(current, i));
+        }
+        int created = 0;
+        for (LocalDateTime period : periods) {
+            HitPartition partition = HitPartition.of(interval, period);
+            if (existing.stream().noneMatch(partition::overlaps)) {
+                hitPartitionRepository.createPartition(partition);
+                existing.add(partition);
+                created++;
+                log.info("Created hits partition {} for [{}, {})", partition.getName(), partition.getFrom(),
+                        partition.getTo());
+            }
+        }
+        return created;
+    }
+
+    public int dropExpiredPartitions() {
+        if (retention <= 0 || !hitPartitionRepository.tryLock()) {
+            return 0;
+        }
+        LocalDateTime cutoff = interval.plus(interval.floor(LocalDateTime.now()), -retention);
+        LocalDateTime rollupCutoff = cutoff;
+        int dropped = 0;
+        for (HitPartition partition : hitPartitionRepository.findPartitions()) {
+            if (partition.getTo().isAfter(cutoff)) {
+                continue;
+            }
+            if (hitPartitionRepository.hasPendingRollups(partition)) {
+                log.warn("Hits partition {} is past retention but has hits not rolled up yet, keeping it",
+                        partition.getName());
+                if (partition.getFrom().isBefore(rollupCutoff)) {
+                    rollupCutoff = partition.getFrom();
+                }
+                continue;
+            }
+            hitPartitionRepository.dropPartition(partition);
+            dropped++;
+            log.info("Dropped hits partition {} past retention", partition.getName());
+        }
+        int rollups = hitRollupRepository.deleteBefore(rollupCutoff);
+        if (rollups > 0) {
+            log.info("Deleted {} hit rollups before {}", rollups, rollupCutoff);
+        }
+        return dropped;
+    }
+}
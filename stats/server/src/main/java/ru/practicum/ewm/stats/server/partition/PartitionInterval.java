@@ -0,0 +1,30 @@
+package ru.practicum.ewm.stats.server.partition;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum PartitionInterval {
+    DAY(DateTimeFormatter.ofPattern("yyyyMMdd")),
+    MONTH(DateTimeFormatter.ofPattern("yyyyMM"));
+
+    private final DateTimeFormatter suffixFormat;
+
+    PartitionInterval(DateTimeFormatter suffixFormat) {
+        this.suffixFormat = suffixFormat;
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return this == DAY ? day : day.with(TemporalAdjusters.firstDayOfMonth());
+    }
+
+    public LocalDateTime plus(LocalDateTime time, long amount) {
+        return this == DAY ? time.plusDays(amount) : time.plusMonths(amount);
+    }
+
+    public String suffix(LocalDateTime from) {
+        return from.format(suffixFormat);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BucketRange {
+    Granularity granularity;
+    LocalDateTime from;
+    LocalDateTime to;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "stats.rollup.enabled", matchIfMissing = true)
+public class HitRollupJob {
+    private final HitRollupService hitRollupService;
+
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:5000}")
+    public void rollUp() {
+        try {
+            int rolledUp;
+            do {
+                rolledUp = hitRollupService.rollUp();
+            } while (rolledUp == hitRollupService.getBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Hit rollup failed: {}", e.getMessage());
+        }
+    }
+}
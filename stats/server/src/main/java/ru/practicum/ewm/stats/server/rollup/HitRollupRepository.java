@@ -0,0 +1,173 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.stats.dto.ViewStats;
+import ru.practicum.ewm.stats.server.model.EndpointHit;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+    private static final long ROLLUP_LOCK_KEY = 0x5354415453L;
+    private static final RowMapper<ViewStats> VIEW_STATS_MAPPER = (rs, rowNum) ->
+            new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"));
+    private static final RowMapper<Rollup> ROLLUP_MAPPER = (rs, rowNum) -> new Rollup(
+            new RollupKey(Granularity.valueOf(rs.getString("granularity")), rs.getString("app"),
+                    rs.getString("uri"), rs.getTimestamp("bucket").toLocalDateTime()),
+            rs.getLong("hits"), HyperLogLog.fromBytes(rs.getBytes("ip_sketch")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", ROLLUP_LOCK_KEY), Boolean.class));
+    }
+
+    public List<EndpointHit> findPendingHits(int limit) {
+        return jdbcTemplate.query("SELECT id, app, uri, ip, timestamp FROM hits " +
+                        "WHERE NOT rolled_up ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new EndpointHit(rs.getLong("id"), rs.getString("app"), rs.getString("uri"),
+                        rs.getString("ip"), rs.getTimestamp("timestamp").toLocalDateTime()));
+    }
+
+    public void markRolledUp(List<Long> ids) {
+        jdbcTemplate.update("UPDATE hits SET rolled_up = TRUE WHERE id = ANY(:ids)",
+                new MapSqlParameterSource("ids", ids.toArray(Long[]::new)));
+    }
+
+    public Map<RollupKey, Rollup> findRollups(Collection<RollupKey> keys) {
+        String[] granularities = new String[keys.size()];
+        String[] apps = new String[keys.size()];
+        String[] uris = new String[keys.size()];
+        String[] buckets = new String[keys.size()];
+        int i = 0;
+        for (RollupKey key : keys) {
+            granularities[i] = key.getGranularity().name();
+            apps[i] = key.getApp();
+            uris[i] = key.getUri();
+            buckets[i] = Timestamp.valueOf(key.getBucket()).toString();
+            i++;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("granularities", granularities)
+                .addValue("apps", apps)
+                .addValue("uris", uris)
+                .addValue("buckets", buckets);
+        Map<RollupKey, Rollup> rollups = new HashMap<>();
+        jdbcTemplate.query("SELECT r.granularity, r.app, r.uri, r.bucket, r.hits, r.ip_sketch FROM hit_rollups r " +
+                        "JOIN unnest(CAST(:granularities AS varchar[]), CAST(:apps AS varchar[]), " +
+                        "CAST(:uris AS varchar[]), CAST(:buckets AS timestamp[])) AS k(granularity, app, uri, bucket) " +
+                        "ON r.granularity = k.granularity AND r.uri = k.uri AND r.bucket = k.bucket AND r.app = k.app",
+                params, (RowCallbackHandler) rs -> {
+                    Rollup rollup = ROLLUP_MAPPER.mapRow(rs, 0);
+                    rollups.put(rollup.getKey(), rollup);
+                });
+        return rollups;
+    }
+
+    public void saveAll(Collection<Rollup> rollups) {
+        MapSqlParameterSource[] params = rollups.stream()
+                .map(rollup -> keyParams(rollup.getKey())
+                        .addValue("hits", rollup.getHits())
+                        .addValue("sketch", rollup.getIps().toBytes()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO hit_rollups (granularity, app, uri, bucket, hits, ip_sketch) " +
+                "VALUES (:granularity, :app, :uri, :bucket, :hits, :sketch) " +
+                "ON CONFLICT (granularity, uri, bucket, app) " +
+                "DO UPDATE SET hits = EXCLUDED.hits, ip_sketch = EXCLUDED.ip_sketch", params);
+    }
+
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM hit_rollups WHERE bucket < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+
+    public List<ViewStats> countRolledUpHits(RollupWindow window, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT app, uri, SUM(hits) AS hits FROM hit_rollups WHERE " +
+                rollupCondition(window, uris, params) + " GROUP BY app, uri";
+        return jdbcTemplate.query(sql, params, VIEW_STATS_MAPPER);
+    }
+
+    public List<Rollup> findRolledUpSketches(RollupWindow window, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT granularity, app, uri, bucket, hits, ip_sketch FROM hit_rollups WHERE " +
+                rollupCondition(window, uris, params);
+        return jdbcTemplate.query(sql, params, ROLLUP_MAPPER);
+    }
+
+    public List<ViewStats> countRawHitsOutside(RollupWindow window, LocalDateTime start, LocalDateTime end,
+                                               List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT app, uri, COUNT(*) AS hits FROM hits WHERE " +
+                rawCondition(window, start, end, uris, params) + " GROUP BY app, uri";
+        return jdbcTemplate.query(sql, params, VIEW_STATS_MAPPER);
+    }
+
+    public List<EndpointHit> findRawVisitorsOutside(RollupWindow window, LocalDateTime start, LocalDateTime end,
+                                                    List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT DISTINCT app, uri, ip FROM hits WHERE " +
+                rawCondition(window, start, end, uris, params);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new EndpointHit(rs.getString("app"), rs.getString("uri"), rs.getString("ip"), null));
+    }
+
+    private String rollupCondition(RollupWindow window, List<String> uris, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("(");
+        List<BucketRange> ranges = window.getRanges();
+        for (int i = 0; i < ranges.size(); i++) {
+            BucketRange range = ranges.get(i);
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(granularity = :granularity").append(i)
+                    .append(" AND bucket >= :from").append(i)
+                    .append(" AND bucket < :to").append(i).append(")");
+            params.addValue("granularity" + i, range.getGranularity().name())
+                    .addValue("from" + i, Timestamp.valueOf(range.getFrom()))
+                    .addValue("to" + i, Timestamp.valueOf(range.getTo()));
+        }
+        sql.append(")");
+        if (uris != null) {
+            sql.append(" AND uri IN (:uris)");
+            params.addValue("uris", uris);
+        }
+        return sql.toString();
+    }
+
+    private String rawCondition(RollupWindow window, LocalDateTime start, LocalDateTime end, List<String> uris,
+                                MapSqlParameterSource params) {
+        params.addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end))
+                .addValue("alignedStart", Timestamp.valueOf(window.getAlignedStart()))
+                .addValue("alignedEnd", Timestamp.valueOf(window.getAlignedEnd()));
+        String sql = "timestamp BETWEEN :start AND :end " +
+                "AND (timestamp < :alignedStart OR timestamp >= :alignedEnd OR NOT rolled_up)";
+        if (uris != null) {
+            params.addValue("uris", uris);
+            return sql + " AND uri IN (:uris)";
+        }
+        return sql;
+    }
+
+    private MapSqlParameterSource keyParams(RollupKey key) {
+        return new MapSqlParameterSource()
+                .addValue("granularity", key.getGranularity().name())
+                .addValue("app", key.getApp())
+                .addValue("uri", key.getUri())
+                .addValue("bucket", Timestamp.valueOf(key.getBucket()));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.stats.server.model.EndpointHit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class HitRollupService {
+    private final HitRollupRepository hitRollupRepository;
+    @Value("${stats.rollup.batch-size:5000}")
+    private int batchSize;
+    @Value("${stats.unique.relative-error:0.02}")
+    private double uniqueRelativeError;
+
+    public int rollUp() {
+        if (!hitRollupRepository.tryLock()) {
+            log.debug("Hit rollup is already running on another instance");
+            return 0;
+        }
+        List<EndpointHit> hits = hitRollupRepository.findPendingHits(batchSize);
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        Map<RollupKey, Rollup> delta = new HashMap<>();
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (EndpointHit hit : hits) {
+            for (Granularity granularity : Granularity.values()) {
+                RollupKey key = new RollupKey(granularity, hit.getApp(), hit.getUri(),
+                        granularity.floor(hit.getTimestamp()));
+                delta.computeIfAbsent(key, k -> new Rollup(k, 0, newSketch()))
+                        .add(hit.getIp());
+            }
+            ids.add(hit.getId());
+        }
+        Map<RollupKey, Rollup> existing = hitRollupRepository.findRollups(delta.keySet());
+        existing.forEach((key, rollup) -> rollup.merge(delta.get(key)));
+        delta.putAll(existing);
+        hitRollupRepository.saveAll(delta.values());
+        hitRollupRepository.markRolledUp(ids);
+        log.debug("Rolled up {} hits into {} buckets", hits.size(), delta.size());
+        return hits.size();
+    }
+
+    public HyperLogLog newSketch() {
+        return new HyperLogLog(HyperLogLog.precisionFor(uniqueRelativeError));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Rollup {
+    private final RollupKey key;
+    private long hits;
+    private final HyperLogLog ips;
+
+    public void add(String ip) {
+        hits++;
+        ips.add(ip);
+    }
+
+    public void merge(Rollup other) {
+        hits += other.hits;
+        ips.merge(other.ips);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class RollupKey {
+    Granularity granularity;
+    String app;
+    String uri;
+    LocalDateTime bucket;
+}
@@ -0,0 +1,60 @@
+package ru.practicum.ewm.stats.server.rollup;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ru.practicum.ewm.stats.server.rollup.Granularity.DAY;
+import static ru.practicum.ewm.stats.server.rollup.Granularity.HOUR;
+import static ru.practicum.ewm.stats.server.rollup.Granularity.MINUTE;
+
+@Getter
+@ToString
+public class RollupWindow {
+    private final LocalDateTime alignedStart;
+    private final LocalDateTime alignedEnd;
+    private final List<BucketRange> ranges = new ArrayList<>();
+
+    private RollupWindow(LocalDateTime alignedStart, LocalDateTime alignedEnd) {
+        this.alignedStart = alignedStart;
+        this.alignedEnd = alignedEnd;
+    }
+
+    public static RollupWindow of(LocalDateTime start, LocalDateTime end) {
+        RollupWindow window = new RollupWindow(MINUTE.ceil(start), MINUTE.floor(end));
+        if (window.isEmpty()) {
+            return window;
+        }
+        LocalDateTime hourStart = HOUR.ceil(window.alignedStart);
+        LocalDateTime hourEnd = HOUR.floor(window.alignedEnd);
+        if (!hourStart.isBefore(hourEnd)) {
+            window.add(MINUTE, window.alignedStart, window.alignedEnd);
+            return window;
+        }
+        LocalDateTime dayStart = DAY.ceil(hourStart);
+        LocalDateTime dayEnd = DAY.floor(hourEnd);
+        window.add(MINUTE, window.alignedStart, hourStart);
+        if (dayStart.isBefore(dayEnd)) {
+            window.add(HOUR, hourStart, dayStart);
+            window.add(DAY, dayStart, dayEnd);
+            window.add(HOUR, dayEnd, hourEnd);
+        } else {
+            window.add(HOUR, hourStart, hourEnd);
+        }
+        window.add(MINUTE, hourEnd, window.alignedEnd);
+        return window;
+    }
+
+    public boolean isEmpty() {
+        return !alignedStart.isBefore(alignedEnd);
+    }
+
+    private void add(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            ranges.add(new BucketRange(granularity, from, to));
+        }
+    }
+}
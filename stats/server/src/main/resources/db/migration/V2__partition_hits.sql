@@ -0,0 +1,29 @@
+ALTER TABLE hits ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE hits RENAME TO hits_unpartitioned;
+
+CREATE SEQUENCE hits_id_seq;
+
+CREATE TABLE hits (
+    id         BIGINT       NOT NULL DEFAULT nextval('hits_id_seq'),
+    app        VARCHAR(255) NOT NULL,
+    uri        VARCHAR(255) NOT NULL,
+    ip         VARCHAR(15)  NOT NULL,
+    timestamp  TIMESTAMP    NOT NULL,
+    rolled_up  BOOLEAN      NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE hits_id_seq OWNED BY hits.id;
+
+CREATE TABLE hits_default PARTITION OF hits DEFAULT;
+
+INSERT INTO hits (id, app, uri, ip, timestamp)
+SELECT id, app, uri, ip, timestamp FROM hits_unpartitioned
+WHERE app IS NOT NULL AND uri IS NOT NULL AND ip IS NOT NULL AND timestamp IS NOT NULL;
+
+SELECT setval('hits_id_seq', COALESCE((SELECT MAX(id) FROM hits), 0) + 1, FALSE);
+
+DROP TABLE hits_unpartitioned;
+
+CREATE INDEX hits_uri_timestamp_idx ON hits (uri, timestamp);
+CREATE INDEX hits_pending_rollup_idx ON hits (id) WHERE NOT rolled_up;
@@ -0,0 +1,11 @@
+CREATE TABLE hit_rollups (
+    granularity VARCHAR(6)   NOT NULL,
+    app         VARCHAR(255) NOT NULL,
+    uri         VARCHAR(255) NOT NULL,
+    bucket      TIMESTAMP    NOT NULL,
+    hits        BIGINT       NOT NULL,
+    ip_sketch   BYTEA        NOT NULL,
+    PRIMARY KEY (granularity, uri, bucket, app)
+);
+
+CREATE INDEX hit_rollups_bucket_idx ON hit_rollups (granularity, bucket);